@@ -0,0 +1,21 @@
+package com.cannon.benchmarks;
+
+import com.cannon.engine.board.Board;
+import com.cannon.pgn.FenUtilities;
+
+public enum BenchmarkPosition {
+
+    OPENING("4t5/1s1s1s1s1s/1s1s1s1s1s/1s1s1s1s1s/10/10/S1S1S1S1S1/S1S1S1S1S1/S1S1S1S1S1/5T4 d - 0 1"),
+    MIDDLEGAME("5t4/3s1s3s/2ss3sss/5ss3/1s2sss1s1/1S1S1S2S1/1S1S1SSS2/7SS1/S1S1S5/3T6 d - 0 1"),
+    ENDGAME("3t6/10/2s4s2/4s5/10/5S4/2S6S/10/3S2S3/6T3 d - 0 1");
+
+    private final String fen;
+
+    BenchmarkPosition(final String fen) {
+        this.fen = fen;
+    }
+
+    public Board createBoard() {
+        return FenUtilities.createGameFromFEN(this.fen);
+    }
+}
@@ -0,0 +1,80 @@
+package com.cannon.benchmarks;
+
+import com.cannon.engine.board.Board;
+import com.cannon.engine.board.Move;
+import com.cannon.engine.pieces.Piece;
+import com.cannon.engine.player.MoveTransition;
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    private BenchmarkPosition position;
+
+    private Board board;
+    private List<Move> moves;
+    private List<Piece> soldiers;
+
+    @Setup
+    public void setUp() {
+        this.board = this.position.createBoard();
+        this.moves = ImmutableList.copyOf(this.board.currentPlayer().getLegalMoves());
+        this.soldiers = new ArrayList<>();
+        for(final Piece piece : this.board.currentPlayer().getActivePieces()) {
+            if(!piece.getPieceType().isTown()) {
+                this.soldiers.add(piece);
+            }
+        }
+    }
+
+    @Benchmark
+    public Board createStandardBoard() {
+        return Board.createStandardBoard();
+    }
+
+    @Benchmark
+    public void moveExecute(final Blackhole blackhole) {
+        for(final Move move : this.moves) {
+            blackhole.consume(move.execute());
+        }
+    }
+
+    @Benchmark
+    public void soldierCalculateLegalMoves(final Blackhole blackhole) {
+        for(final Piece soldier : this.soldiers) {
+            final Collection<Move> legalMoves = soldier.calculateLegalMoves(this.board);
+            blackhole.consume(legalMoves);
+        }
+    }
+
+    @Benchmark
+    public void playerMakeMove(final Blackhole blackhole) {
+        for(final Move move : this.moves) {
+            final MoveTransition transition = this.board.currentPlayer().makeMove(move);
+            blackhole.consume(transition);
+        }
+    }
+}
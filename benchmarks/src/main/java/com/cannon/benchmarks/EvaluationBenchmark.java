@@ -0,0 +1,60 @@
+package com.cannon.benchmarks;
+
+import com.cannon.engine.AI.support.StandardBoardEvaluator;
+import com.cannon.engine.board.Board;
+import com.cannon.engine.board.SearchBoard;
+import com.cannon.pgn.ZobristHashing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    private BenchmarkPosition position;
+
+    private Board board;
+    private SearchBoard searchBoard;
+
+    @Setup
+    public void setUp() {
+        this.board = this.position.createBoard();
+        this.searchBoard = this.board.createSearchBoard();
+    }
+
+    @Benchmark
+    public int evaluateBoard() {
+        return StandardBoardEvaluator.get().evaluate(this.board, 0);
+    }
+
+    @Benchmark
+    public int evaluateSearchBoard() {
+        return StandardBoardEvaluator.get().evaluate(this.searchBoard, 0);
+    }
+
+    @Benchmark
+    public long calculateHash() {
+        return ZobristHashing.calculateHash(this.board);
+    }
+
+    @Benchmark
+    public long getZobristHash() {
+        return this.searchBoard.getZobristHash();
+    }
+}
@@ -0,0 +1,65 @@
+package com.cannon.benchmarks;
+
+import com.cannon.engine.AI.support.PlayoutSimulator;
+import com.cannon.engine.board.SearchBoard;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class PlayoutBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    private BenchmarkPosition position;
+
+    private SearchBoard searchBoard;
+    private PlayoutSimulator simulator;
+    private int[] moves;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Plies {
+        public long plies;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.plies = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        this.searchBoard = this.position.createBoard().createSearchBoard();
+        this.simulator = new PlayoutSimulator(42L);
+        this.moves = new int[SearchBoard.MAX_MOVES];
+    }
+
+    @Benchmark
+    public int simulate(final Plies plies) {
+        final int result = this.simulator.simulate(this.searchBoard);
+        plies.plies += this.simulator.getPlies();
+        return result;
+    }
+
+    @Benchmark
+    public int generateUncachedMoves() {
+        return this.searchBoard.generateUncachedMoves(this.moves, 0);
+    }
+}
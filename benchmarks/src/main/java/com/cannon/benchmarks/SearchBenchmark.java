@@ -0,0 +1,67 @@
+package com.cannon.benchmarks;
+
+import com.cannon.engine.AI.AlphaOne;
+import com.cannon.engine.AI.AlphaTwo;
+import com.cannon.engine.board.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    private static final int TIME_RESOURCES = Integer.MAX_VALUE;
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    private BenchmarkPosition position;
+
+    @Param({"3", "4"})
+    private int depth;
+
+    private Board board;
+    private AlphaOne alphaOne;
+    private AlphaTwo alphaTwo;
+
+    // built once, so allocating and zero filling the transposition tables stays out of the figures
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.board = this.position.createBoard();
+        this.alphaOne = new AlphaOne(this.depth);
+        this.alphaOne.setVerbose(false);
+        this.alphaTwo = new AlphaTwo(this.depth, TIME_RESOURCES);
+        this.alphaTwo.setVerbose(false);
+    }
+
+    // every call still searches from a cold transposition table and move ordering
+    @Setup(Level.Invocation)
+    public void clearEngines() {
+        this.alphaOne.newGame();
+        this.alphaTwo.newGame();
+    }
+
+    @Benchmark
+    public int alphaOne() {
+        return this.alphaOne.execute(this.board);
+    }
+
+    @Benchmark
+    public int alphaTwo() {
+        return this.alphaTwo.execute(this.board);
+    }
+}
@@ -0,0 +1,449 @@
+package com.cannon.engine.AI;
+
+import com.cannon.engine.AI.support.BoardEvaluator;
+import com.cannon.engine.AI.support.MoveStrategy;
+import com.cannon.engine.AI.support.SearchCounters;
+import com.cannon.engine.AI.support.SearchStatistics;
+import com.cannon.engine.AI.support.StandardBoardEvaluator;
+import com.cannon.engine.AI.support.TimeControl;
+import com.cannon.engine.board.Board;
+import com.cannon.engine.board.MoveList;
+import com.cannon.engine.board.MoveUtils;
+import com.cannon.engine.board.SearchBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Observable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+public class AlphaThree extends Observable implements MoveStrategy {
+
+    // nodes with this much depth left or less are searched serially by the task that reaches them
+    private static final int SERIAL_DEPTH = 2;
+    private static final int POLL_INTERVAL_MASK = (1 << 10) - 1;
+
+    private final BoardEvaluator evaluator;
+    private final int searchDepth;
+    private final ForkJoinPool pool;
+    // the counter stripes of the live pool threads, and what threads that have since ended counted
+    private final List<SearchCounters> stripes;
+    private final SearchCounters retiredCounters;
+    private volatile SearchStatistics statistics;
+    private boolean verbose = true;
+    private TimeControl nextTimeControl;
+    private volatile TimeControl timeControl = TimeControl.unlimited();
+    // the split above every task of the running iteration; cancelling it stops the search
+    private volatile Split rootSplit = new Split(null);
+
+    public AlphaThree(final int searchDepth,
+                      final int threadCount) {
+        this.evaluator = StandardBoardEvaluator.get();
+        this.searchDepth = searchDepth;
+        this.stripes = new ArrayList<>();
+        this.retiredCounters = new SearchCounters();
+        this.pool = new ForkJoinPool(Math.max(1, threadCount), SearchThread::new, null, false);
+    }
+
+    public void setVerbose(final boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public boolean isVerbose() {
+        return this.verbose;
+    }
+
+    public SearchStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    public void setTimeControl(final TimeControl timeControl) {
+        this.nextTimeControl = timeControl;
+    }
+
+    @Override
+    public String toString() {
+        return "AlphaThree";
+    }
+
+    @Override
+    public int execute(final Board board) {
+        final long startTime = System.nanoTime();
+        resetCounters();
+        if(this.verbose) {
+            System.out.println(board.currentPlayer() + " THINKING with depth = " + this.searchDepth);
+        }
+        this.timeControl = this.nextTimeControl != null ? this.nextTimeControl : TimeControl.unlimited();
+        this.nextTimeControl = null;
+        final MoveList moves = MoveList.encode(board.currentPlayer().getLegalMoves());
+        final SearchBoard searchBoard = board.createSearchBoard();
+        int bestMove = MoveUtils.NULL_MOVE;
+        int completedDepth = 0;
+        if(!moves.isEmpty()) {
+            final int[] legalMoves = new int[moves.size()];
+            for(int i = 0; i < moves.size(); i++) {
+                legalMoves[i] = moves.get(i);
+            }
+            orderMoves(legalMoves, legalMoves.length);
+            final int[] rootMoves = legalMoves;
+            // iterative deepening, so that a search cut short by the clock still has the move of the last depth
+            for(int depth = 1; depth <= this.searchDepth &&
+                    (depth == 1 || !this.timeControl.isSoftLimitReached()); depth++) {
+                final Split rootSplit = new Split(null);
+                this.rootSplit = rootSplit;
+                final int[] iterationBestMove = {MoveUtils.NULL_MOVE};
+                this.pool.invoke(new SearchTask(searchBoard, depth, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                        rootSplit, rootMoves, iterationBestMove));
+                if(rootSplit.isCancelled()) {
+                    if(bestMove == MoveUtils.NULL_MOVE) {
+                        bestMove = iterationBestMove[0];
+                    }
+                    break;
+                }
+                bestMove = iterationBestMove[0];
+                completedDepth = depth;
+                moveToFront(rootMoves, bestMove);
+            }
+            // cancelled tasks still running leave at their next check
+            this.pool.awaitQuiescence(1, TimeUnit.SECONDS);
+        }
+        final SearchStatistics statistics = new SearchStatistics(completedDepth, bestMove,
+                System.nanoTime() - startTime, sumCounters());
+        this.statistics = statistics;
+        if(this.verbose) {
+            System.out.println(board.currentPlayer() + " SELECTS " + MoveUtils.toString(bestMove) + " [" + statistics + "]");
+        }
+        setChanged();
+        notifyObservers(statistics);
+        return bestMove;
+    }
+
+    private static void moveToFront(final int[] moves,
+                                    final int move) {
+        for(int i = 0; i < moves.length; i++) {
+            if(moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return;
+            }
+        }
+    }
+
+    private boolean isCancelled(final Split split,
+                                final SearchCounters counters) {
+        if((counters.countNode() & POLL_INTERVAL_MASK) == 0 && this.timeControl.isHardLimitReached()) {
+            this.rootSplit.cancel();
+        }
+        return split.isCancelled();
+    }
+
+    private void resetCounters() {
+        synchronized (this.stripes) {
+            this.retiredCounters.reset();
+            for(final SearchCounters stripe : this.stripes) {
+                stripe.reset();
+            }
+        }
+    }
+
+    // called once the pool is quiet, the joins order the threads' counting before it
+    private SearchCounters sumCounters() {
+        final SearchCounters total = new SearchCounters();
+        synchronized (this.stripes) {
+            total.add(this.retiredCounters);
+            for(final SearchCounters stripe : this.stripes) {
+                total.add(stripe);
+            }
+        }
+        return total;
+    }
+
+    private int search(final SearchBoard board,
+                       final int depth,
+                       final int alpha,
+                       final int beta,
+                       final Split split,
+                       final int[][] moveBuffers,
+                       final SearchCounters counters) {
+        if(depth > SERIAL_DEPTH) {
+            return parallelSearch(board, depth, alpha, beta, split, null, null, moveBuffers, counters);
+        }
+        return serialSearch(board, depth, alpha, beta, split, moveBuffers, counters);
+    }
+
+    /*
+     * Young Brothers Wait: the eldest legal move is searched first on this thread, the remaining siblings are
+     * forked together with the bounds it produced. A cutoff cancels every sibling subtree still running.
+     */
+    private int parallelSearch(final SearchBoard board,
+                               final int depth,
+                               int alpha,
+                               int beta,
+                               final Split split,
+                               final int[] rootMoves,
+                               final int[] bestMove,
+                               final int[][] moveBuffers,
+                               final SearchCounters counters) {
+        if(isCancelled(split, counters)) {
+            return 0;
+        }
+        if(depth == 0 || isEndGame(board)) {
+            return evaluate(board, depth, counters);
+        }
+        final int[] moves = rootMoves != null ? rootMoves : moveBuffers[depth - 1];
+        final int count = rootMoves != null ? rootMoves.length : generateOrderedMoves(board, moves);
+        final boolean maximizing = board.getCurrentAlliance().isLight();
+        int bestValue = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int next = 0;
+        boolean searched = false;
+        while(next < count && !searched) {
+            final int move = moves[next++];
+            board.makeMove(move);
+            if(!leavesMoverInCheck(board)) {
+                final int value = search(board, depth - 1, alpha, beta, split, moveBuffers, counters);
+                board.unmakeMove();
+                searched = true;
+                if(maximizing ? value > bestValue : value < bestValue) {
+                    bestValue = value;
+                    setBestMove(bestMove, move);
+                }
+            } else {
+                board.unmakeMove();
+            }
+        }
+        if(!searched) {
+            return evaluate(board, depth, counters);
+        }
+        if(split.isCancelled()) {
+            return 0;
+        }
+        if(maximizing) {
+            alpha = Math.max(alpha, bestValue);
+        } else {
+            beta = Math.min(beta, bestValue);
+        }
+        if(alpha >= beta) {
+            counters.countCutoff(true);
+            return bestValue;
+        }
+        final Split siblings = new Split(split);
+        final List<SearchTask> tasks = new ArrayList<>(count - next);
+        final List<Integer> taskMoves = new ArrayList<>(count - next);
+        while(next < count) {
+            final int move = moves[next++];
+            board.makeMove(move);
+            if(!leavesMoverInCheck(board)) {
+                final SearchTask task = new SearchTask(new SearchBoard(board), depth - 1, alpha, beta, siblings, null, null);
+                task.fork();
+                tasks.add(task);
+                taskMoves.add(move);
+            }
+            board.unmakeMove();
+        }
+        for(int i = 0; i < tasks.size(); i++) {
+            final int value = tasks.get(i).join();
+            if(split.isCancelled()) {
+                siblings.cancel();
+                return 0;
+            }
+            if(maximizing ? value > bestValue : value < bestValue) {
+                bestValue = value;
+                setBestMove(bestMove, taskMoves.get(i));
+            }
+            if(maximizing) {
+                alpha = Math.max(alpha, bestValue);
+            } else {
+                beta = Math.min(beta, bestValue);
+            }
+            if(alpha >= beta) {
+                counters.countCutoff(false);
+                siblings.cancel();
+                for(int j = i + 1; j < tasks.size(); j++) {
+                    tasks.get(j).cancel(false);
+                }
+                break;
+            }
+        }
+        return bestValue;
+    }
+
+    private int serialSearch(final SearchBoard board,
+                             final int depth,
+                             int alpha,
+                             int beta,
+                             final Split split,
+                             final int[][] moveBuffers,
+                             final SearchCounters counters) {
+        if(isCancelled(split, counters)) {
+            return 0;
+        }
+        if(depth == 0 || isEndGame(board)) {
+            return evaluate(board, depth, counters);
+        }
+        final int[] moves = moveBuffers[depth - 1];
+        final int count = board.generateMoves(moves, 0);
+        final boolean maximizing = board.getCurrentAlliance().isLight();
+        int bestValue = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int searched = 0;
+        // captures on the first pass, quiet moves on the second
+        for(int pass = 0; pass < 2; pass++) {
+            for(int i = 0; i < count; i++) {
+                if(MoveUtils.isCapture(moves[i]) != (pass == 0)) {
+                    continue;
+                }
+                board.makeMove(moves[i]);
+                if(!leavesMoverInCheck(board)) {
+                    final int value = serialSearch(board, depth - 1, alpha, beta, split, moveBuffers, counters);
+                    searched++;
+                    if(maximizing) {
+                        bestValue = Math.max(bestValue, value);
+                        alpha = Math.max(alpha, value);
+                    } else {
+                        bestValue = Math.min(bestValue, value);
+                        beta = Math.min(beta, value);
+                    }
+                }
+                board.unmakeMove();
+                if(alpha >= beta) {
+                    counters.countCutoff(searched == 1);
+                    return bestValue;
+                }
+            }
+        }
+        return searched > 0 ? bestValue : evaluate(board, depth, counters);
+    }
+
+    private int evaluate(final SearchBoard board,
+                         final int depth,
+                         final SearchCounters counters) {
+        counters.countEvaluation();
+        return this.evaluator.evaluate(board, depth);
+    }
+
+    private static int generateOrderedMoves(final SearchBoard board,
+                                            final int[] moves) {
+        final int count = board.generateMoves(moves, 0);
+        orderMoves(moves, count);
+        return count;
+    }
+
+    // moves the captures ahead of the quiet moves in place, keeping the generation order within each
+    private static void orderMoves(final int[] moves,
+                                   final int count) {
+        int captures = 0;
+        for(int i = 0; i < count; i++) {
+            final int move = moves[i];
+            if(MoveUtils.isCapture(move)) {
+                System.arraycopy(moves, captures, moves, captures + 1, i - captures);
+                moves[captures++] = move;
+            }
+        }
+    }
+
+    private static void setBestMove(final int[] bestMove, final int move) {
+        if(bestMove != null) {
+            bestMove[0] = move;
+        }
+    }
+
+    private static boolean isEndGame(final SearchBoard board) {
+        return board.isInCheck(board.getCurrentAlliance());
+    }
+
+    private static boolean leavesMoverInCheck(final SearchBoard board) {
+        return board.isInCheck(board.getCurrentAlliance().getOpponent());
+    }
+
+    private static final class Split {
+        private final Split parent;
+        private volatile boolean cancelled;
+
+        Split(final Split parent) {
+            this.parent = parent;
+        }
+
+        void cancel() {
+            this.cancelled = true;
+        }
+
+        boolean isCancelled() {
+            for(Split split = this; split != null; split = split.parent) {
+                if(split.cancelled) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final class SearchTask extends RecursiveTask<Integer> {
+        private final SearchBoard board;
+        private final int depth;
+        private final int alpha;
+        private final int beta;
+        private final Split split;
+        private final int[] rootMoves;
+        private final int[] bestMove;
+
+        SearchTask(final SearchBoard board,
+                   final int depth,
+                   final int alpha,
+                   final int beta,
+                   final Split split,
+                   final int[] rootMoves,
+                   final int[] bestMove) {
+            this.board = board;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.split = split;
+            this.rootMoves = rootMoves;
+            this.bestMove = bestMove;
+        }
+
+        @Override
+        protected Integer compute() {
+            final SearchThread thread = (SearchThread) Thread.currentThread();
+            if(this.rootMoves != null) {
+                return parallelSearch(this.board, this.depth, this.alpha, this.beta, this.split, this.rootMoves,
+                        this.bestMove, thread.moveBuffers, thread.counters);
+            }
+            return search(this.board, this.depth, this.alpha, this.beta, this.split, thread.moveBuffers, thread.counters);
+        }
+    }
+
+    /*
+     * A pool thread with its own counter stripe and move buffers. The tasks of this engine's pool only ever
+     * run on these. The buffers are indexed by the depth left: a task the thread runs while it waits in a
+     * join descends from the joined task, so it only uses the buffers of depths below every node on the stack.
+     */
+    private final class SearchThread extends ForkJoinWorkerThread {
+        private final SearchCounters counters;
+        private final int[][] moveBuffers;
+
+        SearchThread(final ForkJoinPool pool) {
+            super(pool);
+            this.counters = new SearchCounters();
+            this.moveBuffers = new int[Math.max(AlphaThree.this.searchDepth, 1)][SearchBoard.MAX_MOVES];
+        }
+
+        @Override
+        protected void onStart() {
+            super.onStart();
+            synchronized (AlphaThree.this.stripes) {
+                AlphaThree.this.stripes.add(this.counters);
+            }
+        }
+
+        @Override
+        protected void onTermination(final Throwable exception) {
+            synchronized (AlphaThree.this.stripes) {
+                AlphaThree.this.stripes.remove(this.counters);
+                AlphaThree.this.retiredCounters.add(this.counters);
+            }
+            super.onTermination(exception);
+        }
+    }
+}
@@ -1,87 +1,75 @@
 package com.cannon.engine.AI;
 
 
-import com.cannon.engine.AI.support.BoardEvaluator;
-import com.cannon.engine.AI.support.MoveStrategy;
-import com.cannon.engine.AI.support.StandardBoardEvaluator;
+import com.cannon.engine.AI.support.AlphaBeta;
+import com.cannon.engine.AI.support.AnalysisLine;
+import com.cannon.engine.AI.support.SearchStatistics;
+import com.cannon.engine.AI.support.TimeControl;
+import com.cannon.engine.AI.support.TranspositionTable;
 import com.cannon.engine.player.Alliance;
 import com.cannon.engine.board.Board;
-import com.cannon.engine.board.BoardUtils;
-import com.cannon.engine.board.Move;
+import com.cannon.engine.board.MoveList;
+import com.cannon.engine.board.MoveUtils;
+import com.cannon.engine.board.SearchBoard;
 import com.cannon.engine.player.MoveTransition;
-import com.cannon.engine.player.Player;
-import com.cannon.pgn.ZobristHashing;
-import com.google.common.collect.ComparisonChain;
 import com.google.common.primitives.Ints;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import static com.cannon.engine.board.Move.*;
-import static com.google.common.collect.Ordering.from;
+public class AlphaTwo extends AlphaBeta {
 
-public class AlphaTwo extends Observable implements MoveStrategy {
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int ASPIRATION_GROWTH = 4;
+    private static final int MAX_ASPIRATION_WINDOW = 3200;
 
-    private final BoardEvaluator evaluator;
     private final int searchDepth;
-    private final MoveSorter moveSorter;
-    private final int quiescenceFactor;
     private long timeResources;
-    private long boardsEvaluated;
-    private long executionTime;
-    private int quiescenceCount;
-    private static final int MAX_QUIESCENCE = 5000 * 5;
-    private int cutOffsProduced;
-    private int nodesExplored = 0;
-    private int depthExplored = 0;
-    private Map<Long,tableNode> transposition = new HashMap<>();
-    public ZobristHashing zobrist;
-
-    private class tableNode{
-        protected int score;
-        protected int depth;
-        protected int flag;
-        public tableNode(Move bestMove, int score, int depth, int flag){
-            this.score = score;
-            this.depth = depth;
-            this.flag = flag;
-        }
-    }
-
-    private enum MoveSorter {
+    private final int threadCount;
+    private final List<AlphaTwo> helpers;
+    private ExecutorService helperPool;
+    private ExecutorService ponderPool;
+    private Future<Integer> ponderSearch;
+    private long ponderHash;
+    // the main thread's progress over the iterations of the last search
+    private int completedDepth;
+    private long iterationNodes;
+    private long previousIterationNodes;
 
-        SORT {
-            @Override
-            Collection<Move> sort(final Collection<Move> moves) {
-                return from(SMART_SORT).immutableSortedCopy(moves);
-            }
-        };
-
-        public static Comparator<Move> SMART_SORT = new Comparator<Move>() {
-            @Override
-            public int compare(final Move move1, final Move move2) {
-                return ComparisonChain.start()
-                        .compareTrueFirst(BoardUtils.isThreatenedBoardImmediate(move1.getBoard()), BoardUtils.isThreatenedBoardImmediate(move2.getBoard()))
-                        .compareTrueFirst(move1.isAttack(), move2.isAttack())
-                        .compare(move2.getMovedPiece().getPieceValue(), move1.getMovedPiece().getPieceValue())
-                        .result();
-            }
-        };
+    public AlphaTwo(final int searchDepth,
+                    final int timeResources) {
+        this(searchDepth, timeResources, TranspositionTable.DEFAULT_SIZE_MB);
+    }
 
-        abstract Collection<Move> sort(Collection<Move> moves);
+    public AlphaTwo(final int searchDepth,
+                    final int timeResources,
+                    final int transpositionTableMB) {
+        this(searchDepth, timeResources, transpositionTableMB, 1);
     }
 
     public AlphaTwo(final int searchDepth,
-                    final int quiescenceFactor,
-                    final int timeResources) {
-        this.evaluator = StandardBoardEvaluator.get();
+                    final int timeResources,
+                    final int transpositionTableMB,
+                    final int threadCount) {
+        super(transpositionTableMB);
         this.searchDepth = searchDepth;
-        this.quiescenceFactor = quiescenceFactor;
         this.timeResources = timeResources;
-        this.moveSorter = MoveSorter.SORT;
-        this.boardsEvaluated = 0;
-        this.quiescenceCount = 0;
-        this.cutOffsProduced = 0;
-        this.zobrist = new ZobristHashing();
+        this.threadCount = Math.max(1, threadCount);
+        this.helpers = new ArrayList<>();
+        for(int i = 1; i < this.threadCount; i++) {
+            this.helpers.add(new AlphaTwo(this));
+        }
+    }
+
+    private AlphaTwo(final AlphaTwo mainSearch) {
+        super(mainSearch.transpositionTable);
+        this.searchDepth = mainSearch.searchDepth;
+        this.timeResources = mainSearch.timeResources;
+        this.threadCount = 1;
+        this.helpers = Collections.emptyList();
     }
 
     @Override
@@ -91,189 +79,415 @@ public class AlphaTwo extends Observable implements MoveStrategy {
 
 
     @Override
-    public Move execute(final Board board) {
-        final long startTime = System.currentTimeMillis();
-        final Player currentPlayer = board.currentPlayer();
-        final Alliance alliance = currentPlayer.getAlliance();
-        Move bestMove = MoveFactory.getNullMove();
-        int currentValue;
-        System.out.println(board.currentPlayer() + " THINKING with depth = " + this.searchDepth);
-        System.out.println("\tOrdered moves! : " + this.moveSorter.sort(board.currentPlayer().getLegalMoves()));
-        MoveOrderingBuilder builder = new MoveOrderingBuilder();
-        builder.setOrder(board.currentPlayer().getAlliance().isLight() ? Ordering.DESC : Ordering.ASC);
-        for(final Move move : board.currentPlayer().getLegalMoves()) {
-            builder.addMoveOrderingRecord(move, 0);
+    public int execute(final Board board) {
+        final TimeControl defaultTimeControl = TimeControl.forMove(this.timeResources / 2, this.timeResources);
+        final int bestMove;
+        if(this.ponderSearch != null && board.createSearchBoard().getZobristHash() == this.ponderHash) {
+            // ponder hit: the running search already works on this position, it only needs the real clock
+            takeTimeControl(defaultTimeControl);
+            if(isVerbose()) {
+                System.out.println(board.currentPlayer() + " PONDER HIT");
+            }
+            bestMove = awaitPondering();
+        } else {
+            stopPondering();
+            startSearch(defaultTimeControl);
+            bestMove = search(board);
+        }
+        final SearchStatistics statistics = publishStatistics(this.completedDepth, bestMove, this.iterationNodes,
+                this.previousIterationNodes);
+        if(isVerbose()) {
+            System.out.println(board.currentPlayer() + " SELECTS " + MoveUtils.toString(bestMove) + " [" + statistics + "]");
+        }
+        return bestMove;
+    }
+
+    /*
+     * Starts searching, in the background and without a time limit, the position the opponent is expected
+     * to reach: board is the position after our move and the reply is the next move of the principal
+     * variation. The next execute either continues this search or stops it. Returns false when there is no
+     * reply to expect.
+     */
+    public boolean startPondering(final Board board) {
+        stopPondering();
+        final MoveList variation = getPrincipalVariation(board, 1);
+        if(variation.isEmpty()) {
+            return false;
+        }
+        final MoveTransition transition = board.currentPlayer().makeMove(MoveUtils.decode(board, variation.get(0)));
+        if(!transition.getMoveStatus().isDone()) {
+            return false;
+        }
+        final Board ponderBoard = transition.getToBoard();
+        if(this.ponderPool == null) {
+            this.ponderPool = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "AlphaTwo ponder");
+                thread.setDaemon(true);
+                return thread;
+            });
         }
+        if(isVerbose()) {
+            System.out.println(ponderBoard.currentPlayer() + " PONDERING on " + MoveUtils.toString(variation.get(0)));
+        }
+        startSearch(TimeControl.unlimited());
+        this.ponderHash = ponderBoard.createSearchBoard().getZobristHash();
+        this.ponderSearch = this.ponderPool.submit(() -> search(ponderBoard));
+        return true;
+    }
 
-        int currentDepth = 1;
-        int highestSeenValue = Integer.MIN_VALUE;
-        int lowestSeenValue = Integer.MAX_VALUE;
-        while (currentDepth <= this.searchDepth) {
-            final long subTimeStart = System.currentTimeMillis();
-            final List<MoveScoreRecord> records = builder.build();
-            builder = new MoveOrderingBuilder();
-            builder.setOrder(board.currentPlayer().getAlliance().isLight() ? Ordering.DESC : Ordering.ASC);
-            for (MoveScoreRecord record : records) {
-                if(System.currentTimeMillis() - startTime >= this.timeResources) {
-                    break;
-                }
-                final Move move = record.getMove();
-                final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-                this.quiescenceCount = 0;
-                if (moveTransition.getMoveStatus().isDone()) {
-                    currentValue = alliance.isLight() ?
-                            min(moveTransition.getToBoard(), currentDepth - 1, highestSeenValue, lowestSeenValue) :
-                            max(moveTransition.getToBoard(), currentDepth - 1, highestSeenValue, lowestSeenValue);
-                    builder.addMoveOrderingRecord(move, currentValue);
-                    if (alliance.isLight() && currentValue > highestSeenValue) {
-                        highestSeenValue = currentValue;
-                        bestMove = move;
-                    } else if (alliance.isDark() && currentValue < lowestSeenValue) {
-                        lowestSeenValue = currentValue;
-                        bestMove = move;
-                    }
+    /*
+     * Ponder miss or end of game: the background search is abandoned, what it stored in the transposition
+     * table is kept.
+     */
+    public void stopPondering() {
+        if(this.ponderSearch != null) {
+            stop();
+            awaitPondering();
+        }
+    }
+
+    public boolean isPondering() {
+        return this.ponderSearch != null;
+    }
+
+    private int awaitPondering() {
+        final Future<Integer> ponderSearch = this.ponderSearch;
+        this.ponderSearch = null;
+        try {
+            return ponderSearch.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            e.getCause().printStackTrace();
+        }
+        return MoveUtils.NULL_MOVE;
+    }
+
+    /*
+     * Multi-PV analysis: the best lineCount root moves with exact scores and their principal variations,
+     * best first. Every line is an exclusion search, a root search over the moves the earlier lines did not
+     * take, so the transposition table and move ordering carry over from line to line. Bounded by the search
+     * depth and time resources like execute; the lines of the last completed depth are returned.
+     */
+    public List<AnalysisLine> analyze(final Board board,
+                                      final int lineCount) {
+        stopPondering();
+        startSearch(TimeControl.forMove(this.timeResources / 2, this.timeResources));
+        if(isVerbose()) {
+            System.out.println(board.currentPlayer() + " ANALYSING " + lineCount + " lines with depth = " + this.searchDepth);
+        }
+        final SearchBoard searchBoard = board.createSearchBoard();
+        final MoveList moves = MoveList.encode(board.currentPlayer().getLegalMoves());
+        final MoveList rootMoves = new MoveList(Math.max(moves.size(), 1));
+        for(int i = 0; i < moves.size(); i++) {
+            searchBoard.makeMove(moves.get(i));
+            if(!leavesMoverInCheck(searchBoard)) {
+                rootMoves.add(moves.get(i));
+            }
+            searchBoard.unmakeMove();
+        }
+        final int[] rootScores = new int[rootMoves.size()];
+        final List<Future<?>> helperSearches = startHelpers(board, moves);
+        List<AnalysisLine> lines = Collections.emptyList();
+        for(int depth = 1; depth <= this.searchDepth && !isStopped() &&
+                (depth == 1 || !this.timeControl.isSoftLimitReached()); depth++) {
+            final List<AnalysisLine> depthLines = searchLines(board, searchBoard, rootMoves, rootScores, depth,
+                    Math.min(lineCount, rootMoves.size()));
+            if(depthLines == null) {
+                break;
+            }
+            lines = depthLines;
+            if(isVerbose()) {
+                for(final AnalysisLine line : lines) {
+                    System.out.println("\t" + toString() + " Depth = " + depth + " line = " + line);
                 }
             }
-            final long subTime = System.currentTimeMillis()- subTimeStart;
-            System.out.println("\t" +toString()+ " bestMove = " +bestMove+ " Depth = " +currentDepth+ " took " +(subTime) + " ms");
             setChanged();
-            notifyObservers(bestMove);
-            currentDepth++;
+            notifyObservers(lines);
         }
-        this.executionTime = System.currentTimeMillis() - startTime;
-        System.out.printf("%s SELECTS %s [#boards evaluated = %d, time taken = %d ms, eval rate = %.1f cutoffCount = %d prune percent = %.2f\n", board.currentPlayer(),
-                    bestMove, this.boardsEvaluated, this.executionTime, (1000 * ((double)this.boardsEvaluated/this.executionTime)), this.cutOffsProduced, 100 * ((double)this.cutOffsProduced/this.boardsEvaluated));
-        return bestMove;
+        stopHelpers(helperSearches);
+        final SearchStatistics statistics = lines.isEmpty() ? publishStatistics(0, MoveUtils.NULL_MOVE) :
+                publishStatistics(lines.get(0).getDepth(), lines.get(0).getMove());
+        if(isVerbose()) {
+            System.out.println("\t" + toString() + " [" + statistics + "]");
+        }
+        return lines;
     }
 
-    public int max(final Board board,
-                   int depth,
-                   int highest,
-                   int lowest) {
-        int olda = lowest;
-        incrementNodeCount();
-        updateDepth(depth);
-        long state = zobrist.getHash(board);
-
-        if(transposition.containsKey(state)) {
-            if(transposition.get(state).depth >= depth) {
-                int value = transposition.get(state).score;
-                if(transposition.get(state).flag == 0) {
-                    return value;
-                } else if(transposition.get(state).flag == -1) {
-                    lowest = Math.max(lowest, value);
-                } else if(transposition.get(state).flag == 1) {
-                    highest = Math.min(highest, value);
+    /*
+     * One depth of the analysis. The first lineCount entries of rootMoves end up holding the lines in order,
+     * the rest are sorted by their scores for the next depth. Returns null when the search was stopped.
+     */
+    private List<AnalysisLine> searchLines(final Board board,
+                                           final SearchBoard searchBoard,
+                                           final MoveList rootMoves,
+                                           final int[] rootScores,
+                                           final int depth,
+                                           final int lineCount) {
+        final boolean light = board.currentPlayer().getAlliance().isLight();
+        final List<AnalysisLine> lines = new ArrayList<>(lineCount);
+        for(int line = 0; line < lineCount; line++) {
+            int bestIndex = -1;
+            int bestValue = light ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+            for(int i = line; i < rootMoves.size(); i++) {
+                if(this.timeControl.isHardLimitReached() || isStopped()) {
+                    return null;
                 }
-                if(lowest >= highest) {
-                    return value;
+                searchBoard.makeMove(rootMoves.get(i));
+                final int value = light ?
+                        searchLightRoot(searchBoard, depth - 1, bestValue, Integer.MAX_VALUE, bestIndex != -1) :
+                        searchDarkRoot(searchBoard, depth - 1, Integer.MIN_VALUE, bestValue, bestIndex != -1);
+                searchBoard.unmakeMove();
+                if(isStopped()) {
+                    return null;
                 }
+                rootScores[i] = value;
+                if(bestIndex == -1 || (light ? value > bestValue : value < bestValue)) {
+                    bestIndex = i;
+                    bestValue = value;
+                }
+            }
+            swapRootMoves(rootMoves, rootScores, line, bestIndex);
+            final int move = rootMoves.get(line);
+            if(line == 0) {
+                this.transpositionTable.store(searchBoard.getZobristHash(), move, bestValue, depth, TranspositionTable.EXACT);
             }
+            final MoveList variation = new MoveList();
+            variation.add(move);
+            final SearchBoard lineBoard = new SearchBoard(searchBoard);
+            lineBoard.makeMove(move);
+            appendPrincipalVariation(lineBoard, depth, variation);
+            lines.add(new AnalysisLine(move, bestValue, depth, variation));
         }
-        if (depth == 0 || BoardUtils.isEndGame(board)) {
-            this.boardsEvaluated++;
-            return this.evaluator.evaluate(board, depth);
-        }
-        int currentHighest = highest;
-        Move bestMove = null;
-        for (final Move move : this.moveSorter.sort((board.currentPlayer().getLegalMoves()))) {
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                final Board toBoard = moveTransition.getToBoard();
-                currentHighest = Math.max(currentHighest, min(moveTransition.getToBoard(),
-                        calculateQuiescenceDepth(toBoard, depth), currentHighest, lowest));
-                bestMove = move;
-                if (lowest <= currentHighest) {
-                    this.cutOffsProduced++;
-                    break;
+        // the remaining scores are mostly bounds, good enough to order the next depth
+        for(int i = lineCount; i < rootMoves.size(); i++) {
+            int best = i;
+            for(int j = i + 1; j < rootMoves.size(); j++) {
+                if(light ? rootScores[j] > rootScores[best] : rootScores[j] < rootScores[best]) {
+                    best = j;
                 }
             }
+            swapRootMoves(rootMoves, rootScores, i, best);
         }
-        int flag = 0;
-        if(currentHighest <= olda) {
-            flag = 1;
-        } else if(currentHighest >= highest) {
-            flag = -1;
-        } else if(flag > lowest && flag < highest) {
-            flag = 0;
+        return lines;
+    }
+
+    private static void swapRootMoves(final MoveList rootMoves,
+                                      final int[] rootScores,
+                                      final int i,
+                                      final int j) {
+        final int move = rootMoves.get(i);
+        rootMoves.set(i, rootMoves.get(j));
+        rootMoves.set(j, move);
+        final int score = rootScores[i];
+        rootScores[i] = rootScores[j];
+        rootScores[j] = score;
+    }
+
+    private int search(final Board board) {
+        if(isVerbose()) {
+            System.out.println(board.currentPlayer() + " THINKING with depth = " + this.searchDepth);
         }
-        transposition.put(state, new tableNode(bestMove, currentHighest, depth, flag));
-        return currentHighest;
+        final MoveList moves = MoveList.encode(board.currentPlayer().getLegalMoves());
+        this.completedDepth = 0;
+        this.iterationNodes = 0;
+        this.previousIterationNodes = 0;
+        final List<Future<?>> helperSearches = startHelpers(board, moves);
+        final int bestMove = iterativeDeepening(board, moves, 1, 0, true);
+        stopHelpers(helperSearches);
+        return bestMove;
     }
 
-    public int min(final Board board,
-                   final int depth,
-                   int highest,
-                   int lowest) {
-        int olda = lowest;
-        incrementNodeCount();
-        updateDepth(depth);
-        long state = zobrist.getHash(board);
-
-        if(transposition.containsKey(state)) {
-            if(transposition.get(state).depth >= depth) {
-                int value = transposition.get(state).score;
-                if(transposition.get(state).flag == 0) {
-                    return value;
-                } else if(transposition.get(state).flag == -1) {
-                    lowest = Math.max(lowest, value);
-                } else if(transposition.get(state).flag == 1) {
-                    highest = Math.min(highest, value);
+    private int iterativeDeepening(final Board board,
+                                   final MoveList moves,
+                                   final int startDepth,
+                                   final int rotation,
+                                   final boolean mainSearch) {
+        final Alliance alliance = board.currentPlayer().getAlliance();
+        final SearchBoard searchBoard = board.createSearchBoard();
+        int bestMove = MoveUtils.NULL_MOVE;
+        int completedBestMove = MoveUtils.NULL_MOVE;
+        int firstLegalMove = MoveUtils.NULL_MOVE;
+        int currentValue;
+        MoveOrderingBuilder builder = new MoveOrderingBuilder();
+        builder.setOrder(alliance.isLight() ? Ordering.DESC : Ordering.ASC);
+        for(int i = 0; i < moves.size(); i++) {
+            builder.addMoveOrderingRecord(moves.get((i + rotation) % moves.size()), 0);
+        }
+
+        int currentDepth = startDepth;
+        int previousValue = 0;
+        boolean hasPreviousValue = false;
+        while (currentDepth <= this.searchDepth && !isStopped() &&
+                (currentDepth == startDepth || !this.timeControl.isSoftLimitReached())) {
+            final long iterationStartNodes = getNodeCount();
+            boolean completed = true;
+            final List<MoveScoreRecord> records = builder.build();
+            int window = ASPIRATION_WINDOW;
+            int highest = hasPreviousValue ? lowerAspirationBound(previousValue, window) : Integer.MIN_VALUE;
+            int lowest = hasPreviousValue ? upperAspirationBound(previousValue, window) : Integer.MAX_VALUE;
+            int iterationBestMove;
+            int iterationValue;
+            while (true) {
+                builder = new MoveOrderingBuilder();
+                builder.setOrder(alliance.isLight() ? Ordering.DESC : Ordering.ASC);
+                iterationBestMove = MoveUtils.NULL_MOVE;
+                iterationValue = alliance.isLight() ? highest : lowest;
+                boolean searchedFirst = false;
+                for (MoveScoreRecord record : records) {
+                    if(this.timeControl.isHardLimitReached() || isStopped()) {
+                        completed = false;
+                        break;
+                    }
+                    final int move = record.getMove();
+                    searchBoard.makeMove(move);
+                    if (!leavesMoverInCheck(searchBoard)) {
+                        if(firstLegalMove == MoveUtils.NULL_MOVE) {
+                            firstLegalMove = move;
+                        }
+                        currentValue = alliance.isLight() ?
+                                searchLightRoot(searchBoard, currentDepth - 1, iterationValue, lowest, searchedFirst) :
+                                searchDarkRoot(searchBoard, currentDepth - 1, highest, iterationValue, searchedFirst);
+                        searchedFirst = true;
+                        if(isStopped()) {
+                            searchBoard.unmakeMove();
+                            completed = false;
+                            break;
+                        }
+                        builder.addMoveOrderingRecord(move, currentValue);
+                        if (alliance.isLight() ? currentValue > iterationValue : currentValue < iterationValue) {
+                            iterationValue = currentValue;
+                            iterationBestMove = move;
+                            bestMove = move;
+                        }
+                    }
+                    searchBoard.unmakeMove();
+                    if(alliance.isLight() ? iterationValue >= lowest : iterationValue <= highest) {
+                        break;
+                    }
                 }
-                if(lowest >= highest) {
-                    return value;
+                if(!completed) {
+                    break;
                 }
-            }
-        }
-        if (depth == 0 || BoardUtils.isEndGame(board)) {
-            this.boardsEvaluated++;
-            return this.evaluator.evaluate(board, depth);
-        }
-        int currentLowest = lowest;
-        Move bestMove = null;
-        for (final Move move : this.moveSorter.sort((board.currentPlayer().getLegalMoves()))) {
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                final Board toBoard = moveTransition.getToBoard();
-                currentLowest = Math.min(currentLowest, max(moveTransition.getToBoard(),
-                        calculateQuiescenceDepth(toBoard, depth), highest, currentLowest));
-                bestMove = move;
-                if (currentLowest <= highest) {
-                    this.cutOffsProduced++;
+                // outside the aspiration window the scores are only bounds: widen the failing side and search again
+                if(iterationValue <= highest && highest != Integer.MIN_VALUE) {
+                    window *= ASPIRATION_GROWTH;
+                    highest = window > MAX_ASPIRATION_WINDOW ? Integer.MIN_VALUE : lowerAspirationBound(previousValue, window);
+                } else if(iterationValue >= lowest && lowest != Integer.MAX_VALUE) {
+                    window *= ASPIRATION_GROWTH;
+                    lowest = window > MAX_ASPIRATION_WINDOW ? Integer.MAX_VALUE : upperAspirationBound(previousValue, window);
+                } else {
                     break;
                 }
             }
+            if(completed && iterationBestMove != MoveUtils.NULL_MOVE) {
+                completedBestMove = iterationBestMove;
+                previousValue = iterationValue;
+                hasPreviousValue = true;
+                this.transpositionTable.store(searchBoard.getZobristHash(), iterationBestMove, iterationValue,
+                        currentDepth, TranspositionTable.EXACT);
+            }
+            if(mainSearch) {
+                if(completed) {
+                    this.completedDepth = currentDepth;
+                    this.previousIterationNodes = this.iterationNodes;
+                    this.iterationNodes = getNodeCount() - iterationStartNodes;
+                }
+                final SearchStatistics statistics = completed ?
+                        publishStatistics(currentDepth, bestMove, this.iterationNodes, this.previousIterationNodes) :
+                        publishStatistics(currentDepth, bestMove);
+                if(isVerbose()) {
+                    System.out.println("\t" + toString() + " [" + statistics + "]" +
+                            (completed ? " pv = " + getPrincipalVariation(board, currentDepth) : ""));
+                }
+            }
+            currentDepth++;
         }
-        int flag = 0;
-        if(currentLowest <= olda) {
-            flag = 1;
-        } else if(currentLowest >= highest) {
-            flag = -1;
-        } else if(flag > lowest && flag < highest) {
-            flag = 0;
+        if(completedBestMove != MoveUtils.NULL_MOVE) {
+            return completedBestMove;
         }
-        transposition.put(state, new tableNode(bestMove, currentLowest, depth, flag));
-        return currentLowest;
+        return bestMove != MoveUtils.NULL_MOVE ? bestMove : firstLegalMove;
     }
 
-    private int calculateQuiescenceDepth(final Board toBoard,
-                                         final int depth) {
-        if(depth == 1 && this.quiescenceCount < MAX_QUIESCENCE) {
-            int activityMeasure = 0;
-            if (toBoard.currentPlayer().isInCheck()) {
-                activityMeasure += 1;
-            }
-            for(final Move move: BoardUtils.lastNMoves(toBoard, 2)) {
-                if(move.isAttack()) {
-                    activityMeasure += 1;
-                }
-            }
-            if(activityMeasure >= 2) {
-                this.quiescenceCount++;
-                return 2;
+    /*
+     * Principal variation search at the root: the first move gets the full window, the rest are only
+     * proven worse with a zero-width window and re-searched when they turn out to be better.
+     */
+    private int searchLightRoot(final SearchBoard searchBoard,
+                                final int depth,
+                                final int highest,
+                                final int lowest,
+                                final boolean searchedFirst) {
+        if(!searchedFirst) {
+            return min(searchBoard, depth, highest, lowest);
+        }
+        final int value = min(searchBoard, depth, highest, highest + 1);
+        return value > highest && value < lowest ? min(searchBoard, depth, highest, lowest) : value;
+    }
+
+    private int searchDarkRoot(final SearchBoard searchBoard,
+                               final int depth,
+                               final int highest,
+                               final int lowest,
+                               final boolean searchedFirst) {
+        if(!searchedFirst) {
+            return max(searchBoard, depth, highest, lowest);
+        }
+        final int value = max(searchBoard, depth, lowest - 1, lowest);
+        return value < lowest && value > highest ? max(searchBoard, depth, highest, lowest) : value;
+    }
+
+    private static int lowerAspirationBound(final int value, final int window) {
+        return (int) Math.max(Integer.MIN_VALUE + 1L, (long) value - window);
+    }
+
+    private static int upperAspirationBound(final int value, final int window) {
+        return (int) Math.min(Integer.MAX_VALUE - 1L, (long) value + window);
+    }
+
+    private List<Future<?>> startHelpers(final Board board,
+                                         final MoveList moves) {
+        if(this.helpers.isEmpty() || moves.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if(this.helperPool == null) {
+            this.helperPool = Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "AlphaTwo helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        final List<Future<?>> helperSearches = new ArrayList<>(this.helpers.size());
+        for(int i = 0; i < this.helpers.size(); i++) {
+            final AlphaTwo helper = this.helpers.get(i);
+            final int helperIndex = i + 1;
+            helper.resetSearch();
+            helper.setPruning(getPruning());
+            // odd helpers start one ply deeper so the threads spread over neighbouring depths
+            helperSearches.add(this.helperPool.submit(() ->
+                    helper.iterativeDeepening(board, moves, 1 + (helperIndex & 1), helperIndex, false)));
+        }
+        return helperSearches;
+    }
+
+    private void stopHelpers(final List<Future<?>> helperSearches) {
+        for(final AlphaTwo helper : this.helpers) {
+            helper.stop();
+        }
+        for(final Future<?> helperSearch : helperSearches) {
+            try {
+                helperSearch.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (final ExecutionException e) {
+                e.getCause().printStackTrace();
             }
         }
-        return depth - 1;
+    }
+
+    @Override
+    protected Iterable<? extends AlphaBeta> getHelpers() {
+        return this.helpers;
     }
 
     private static long calculateTimeTaken(final long start, final long end) {
@@ -281,25 +495,18 @@ public class AlphaTwo extends Observable implements MoveStrategy {
         return timeTaken;
     }
 
-    protected void updateDepth(int depth) {
-        depthExplored = Math.max(depth, depthExplored);
-    }
-
-    protected void incrementNodeCount() {
-        nodesExplored++;
-    }
 
 
     private static class MoveScoreRecord implements Comparable<MoveScoreRecord> {
-        final Move move;
+        final int move;
         final int score;
 
-        MoveScoreRecord(final Move move, final int score) {
+        MoveScoreRecord(final int move, final int score) {
             this.move = move;
             this.score = score;
         }
 
-        Move getMove() {
+        int getMove() {
             return this.move;
         }
 
@@ -314,7 +521,7 @@ public class AlphaTwo extends Observable implements MoveStrategy {
 
         @Override
         public String toString() {
-            return this.move + " : " +this.score;
+            return MoveUtils.toString(this.move) + " : " +this.score;
         }
     }
 
@@ -358,7 +565,7 @@ public class AlphaTwo extends Observable implements MoveStrategy {
             this.moveScoreRecords = new ArrayList<>();
         }
 
-        void addMoveOrderingRecord(final Move move,
+        void addMoveOrderingRecord(final int move,
                                    final int score) {
             this.moveScoreRecords.add(new MoveScoreRecord(move, score));
         }
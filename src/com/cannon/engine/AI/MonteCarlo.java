@@ -0,0 +1,437 @@
+package com.cannon.engine.AI;
+
+import com.cannon.engine.AI.support.MonteCarloTree;
+import com.cannon.engine.AI.support.MoveStrategy;
+import com.cannon.engine.AI.support.PlayoutSimulator;
+import com.cannon.engine.AI.support.SearchCounters;
+import com.cannon.engine.AI.support.SearchStatistics;
+import com.cannon.engine.AI.support.TimeControl;
+import com.cannon.engine.board.Board;
+import com.cannon.engine.board.MoveUtils;
+import com.cannon.engine.board.SearchBoard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Observable;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Monte Carlo tree search with UCT selection. Every iteration walks down the tree by replaying moves on a
+ * search board, expands the leaf on its second visit, finishes the game with a PlayoutSimulator and backs
+ * the result up the path. The tree is kept between moves and rerooted at the position it is asked about next.
+ *
+ * With more than one thread the search runs in one of two modes. TREE: all threads share one tree, counters
+ * are updated lock free and a virtual loss on the path of every running playout spreads the threads over
+ * different lines. ROOT: every thread grows its own tree and the visits of the root moves are summed when
+ * the move is chosen.
+ */
+public class MonteCarlo extends Observable implements MoveStrategy {
+
+    public enum Parallelism {
+        TREE,
+        ROOT
+    }
+
+    public static final int UNLIMITED_PLAYOUTS = Integer.MAX_VALUE;
+
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int MAX_PLAYOUT_PLIES = 200;
+    private static final int MAX_TREE_DEPTH = 512;
+    private static final int VIRTUAL_LOSS = 1;
+    private static final int WIN = PlayoutSimulator.WIN;
+
+    private final MonteCarloTree[] trees;
+    private final Worker[] workers;
+    private final Parallelism parallelism;
+    private final int playoutBudget;
+    private final long timeResources;
+    private final AtomicLong playoutCount;
+    private ExecutorService workerPool;
+    private SearchBoard treePosition;
+    private TimeControl nextTimeControl;
+    private volatile SearchStatistics statistics;
+    private boolean verbose = true;
+
+    public MonteCarlo(final int playoutBudget,
+                      final long timeResources) {
+        this(playoutBudget, timeResources, MonteCarloTree.DEFAULT_CAPACITY);
+    }
+
+    public MonteCarlo(final int playoutBudget,
+                      final long timeResources,
+                      final int treeCapacity) {
+        this(playoutBudget, timeResources, treeCapacity, 1, Parallelism.TREE);
+    }
+
+    public MonteCarlo(final int playoutBudget,
+                      final long timeResources,
+                      final int treeCapacity,
+                      final int threadCount,
+                      final Parallelism parallelism) {
+        final int threads = Math.max(1, threadCount);
+        this.parallelism = parallelism;
+        this.trees = new MonteCarloTree[parallelism == Parallelism.ROOT ? threads : 1];
+        for(int i = 0; i < this.trees.length; i++) {
+            this.trees[i] = new MonteCarloTree(treeCapacity);
+        }
+        // a virtual loss only pays off when other threads walk the same tree
+        final int virtualLoss = parallelism == Parallelism.TREE && threads > 1 ? VIRTUAL_LOSS : 0;
+        final SplittableRandom random = new SplittableRandom();
+        this.workers = new Worker[threads];
+        for(int i = 0; i < threads; i++) {
+            this.workers[i] = new Worker(this.trees[i % this.trees.length], random.split(), virtualLoss);
+        }
+        this.playoutBudget = playoutBudget;
+        this.timeResources = timeResources;
+        this.playoutCount = new AtomicLong();
+    }
+
+    @Override
+    public String toString() {
+        return "MonteCarlo";
+    }
+
+    public void setTimeControl(final TimeControl timeControl) {
+        this.nextTimeControl = timeControl;
+    }
+
+    public void setVerbose(final boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public boolean isVerbose() {
+        return this.verbose;
+    }
+
+    public SearchStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    public Parallelism getParallelism() {
+        return this.parallelism;
+    }
+
+    public int getThreadCount() {
+        return this.workers.length;
+    }
+
+    @Override
+    public int execute(final Board board) {
+        final long startTime = System.nanoTime();
+        final TimeControl timeControl = this.nextTimeControl != null ? this.nextTimeControl :
+                TimeControl.forMove(this.timeResources, this.timeResources);
+        this.nextTimeControl = null;
+        if(this.verbose) {
+            System.out.println(board.currentPlayer() + " THINKING with " + this.playoutBudget + " playouts");
+        }
+        final SearchBoard searchBoard = board.createSearchBoard();
+        final int reusedVisits = reuseTrees(searchBoard);
+        this.playoutCount.set(0);
+        for(final Worker worker : this.workers) {
+            worker.counters.reset();
+        }
+        final List<Future<?>> workerSearches = startWorkers(searchBoard, timeControl);
+        this.workers[0].search(searchBoard, timeControl);
+        awaitWorkers(workerSearches);
+        final MonteCarloTree tree = this.trees[0];
+        final int bestChild = selectRootChild();
+        final int bestMove = bestChild != MonteCarloTree.NO_NODE ? tree.getMove(bestChild) : MoveUtils.NULL_MOVE;
+        int bestVisits = 0;
+        int bestScore = 0;
+        int treeNodes = 0;
+        for(final MonteCarloTree other : this.trees) {
+            final int child = findRootChild(other, bestMove);
+            if(child != MonteCarloTree.NO_NODE) {
+                bestVisits += other.getVisits(child);
+                bestScore += other.getScore(child);
+            }
+            treeNodes += other.size();
+        }
+        final SearchCounters total = new SearchCounters();
+        for(final Worker worker : this.workers) {
+            total.add(worker.counters);
+        }
+        final SearchStatistics statistics = new SearchStatistics(0, bestMove, System.nanoTime() - startTime, total);
+        this.statistics = statistics;
+        if(this.verbose) {
+            System.out.printf("%s SELECTS %s [%s threads = %d (%s) reused visits = %d tree nodes = %d win rate = %.3f]%n",
+                    board.currentPlayer(), MoveUtils.toString(bestMove), statistics, this.workers.length,
+                    this.parallelism, reusedVisits, treeNodes, bestScore / (2.0 * Math.max(1, bestVisits)));
+        }
+        setChanged();
+        notifyObservers(statistics);
+        return bestMove;
+    }
+
+    /*
+     * The most visited root child of the first tree, with the visits of every tree summed per move when the
+     * search runs root parallel.
+     */
+    private int selectRootChild() {
+        final MonteCarloTree tree = this.trees[0];
+        if(this.trees.length == 1) {
+            return tree.getMostVisitedChild(tree.getRoot());
+        }
+        final int root = tree.getRoot();
+        if(!tree.isExpanded(root)) {
+            return MonteCarloTree.NO_NODE;
+        }
+        int best = MonteCarloTree.NO_NODE;
+        long bestVisits = -1;
+        final int first = tree.getFirstChild(root);
+        for(int child = first; child < first + tree.getChildCount(root); child++) {
+            long visits = 0;
+            for(final MonteCarloTree other : this.trees) {
+                final int otherChild = findRootChild(other, tree.getMove(child));
+                if(otherChild != MonteCarloTree.NO_NODE) {
+                    visits += other.getVisits(otherChild);
+                }
+            }
+            if(visits > bestVisits) {
+                bestVisits = visits;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private static int findRootChild(final MonteCarloTree tree,
+                                     final int move) {
+        final int root = tree.getRoot();
+        if(tree.isExpanded(root)) {
+            final int first = tree.getFirstChild(root);
+            for(int child = first; child < first + tree.getChildCount(root); child++) {
+                if(tree.getMove(child) == move) {
+                    return child;
+                }
+            }
+        }
+        return MonteCarloTree.NO_NODE;
+    }
+
+    private List<Future<?>> startWorkers(final SearchBoard board,
+                                         final TimeControl timeControl) {
+        if(this.workers.length == 1) {
+            return Collections.emptyList();
+        }
+        if(this.workerPool == null) {
+            this.workerPool = Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "MonteCarlo worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        final List<Future<?>> workerSearches = new ArrayList<>(this.workers.length - 1);
+        for(int i = 1; i < this.workers.length; i++) {
+            final Worker worker = this.workers[i];
+            workerSearches.add(this.workerPool.submit(() -> worker.search(board, timeControl)));
+        }
+        return workerSearches;
+    }
+
+    private static void awaitWorkers(final List<Future<?>> workerSearches) {
+        for(final Future<?> workerSearch : workerSearches) {
+            try {
+                workerSearch.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (final ExecutionException e) {
+                e.getCause().printStackTrace();
+            }
+        }
+    }
+
+    /*
+     * Keeps the part of every previous tree that starts at this position. It is looked for up to two plies
+     * below the old root, which covers our move followed by the opponent's reply.
+     */
+    private int reuseTrees(final SearchBoard board) {
+        int reusedVisits = 0;
+        for(final MonteCarloTree tree : this.trees) {
+            final int node = this.treePosition != null ?
+                    findNode(tree, this.treePosition, board.getZobristHash()) : MonteCarloTree.NO_NODE;
+            if(node == MonteCarloTree.NO_NODE) {
+                tree.clear();
+            } else {
+                tree.reroot(node);
+            }
+            reusedVisits += tree.getVisits(tree.getRoot());
+        }
+        this.treePosition = new SearchBoard(board);
+        return reusedVisits;
+    }
+
+    private static int findNode(final MonteCarloTree tree,
+                                final SearchBoard previous,
+                                final long target) {
+        final int root = tree.getRoot();
+        if(previous.getZobristHash() == target) {
+            return root;
+        }
+        if(!tree.isExpanded(root)) {
+            return MonteCarloTree.NO_NODE;
+        }
+        final int first = tree.getFirstChild(root);
+        for(int child = first; child < first + tree.getChildCount(root); child++) {
+            previous.makeMove(tree.getMove(child));
+            if(previous.getZobristHash() == target) {
+                previous.unmakeMove();
+                return child;
+            }
+            if(!tree.isExpanded(child)) {
+                previous.unmakeMove();
+                continue;
+            }
+            final int grandFirst = tree.getFirstChild(child);
+            for(int grandChild = grandFirst; grandChild < grandFirst + tree.getChildCount(child); grandChild++) {
+                previous.makeMove(tree.getMove(grandChild));
+                final boolean found = previous.getZobristHash() == target;
+                previous.unmakeMove();
+                if(found) {
+                    previous.unmakeMove();
+                    return grandChild;
+                }
+            }
+            previous.unmakeMove();
+        }
+        return MonteCarloTree.NO_NODE;
+    }
+
+    private static boolean isEndGame(final SearchBoard board) {
+        return board.isInCheck(board.getCurrentAlliance());
+    }
+
+    private static boolean leavesMoverInCheck(final SearchBoard board) {
+        return board.isInCheck(board.getCurrentAlliance().getOpponent());
+    }
+
+    /*
+     * One search thread: its own board, buffers and playout simulator over the tree it was given.
+     */
+    private final class Worker {
+
+        private final MonteCarloTree tree;
+        private final PlayoutSimulator simulator;
+        private final int virtualLoss;
+        private final int[] path;
+        private final int[] moveBuffer;
+        private final int[] childBuffer;
+        // nodes are the tree nodes walked through, the awaitWorkers joins make the counts visible
+        private final SearchCounters counters;
+
+        Worker(final MonteCarloTree tree,
+               final SplittableRandom random,
+               final int virtualLoss) {
+            this.tree = tree;
+            // light playouts: a random capture whenever there is one
+            this.simulator = new PlayoutSimulator(random, MAX_PLAYOUT_PLIES, true);
+            this.virtualLoss = virtualLoss;
+            this.path = new int[MAX_TREE_DEPTH];
+            this.moveBuffer = new int[SearchBoard.MAX_MOVES];
+            this.childBuffer = new int[SearchBoard.MAX_MOVES];
+            this.counters = new SearchCounters();
+        }
+
+        void search(final SearchBoard root,
+                    final TimeControl timeControl) {
+            final SearchBoard board = new SearchBoard(root);
+            boolean started = false;
+            // a playout is only claimed from the shared budget once the clock allows it
+            while((!started || !timeControl.isSoftLimitReached()) &&
+                    MonteCarlo.this.playoutCount.getAndIncrement() < MonteCarlo.this.playoutBudget) {
+                playout(board);
+                started = true;
+            }
+        }
+
+        private void playout(final SearchBoard board) {
+            int node = this.tree.getRoot();
+            int depth = 0;
+            enter(node, depth++);
+            while(this.tree.isExpanded(node) && this.tree.getChildCount(node) > 0 && depth < MAX_TREE_DEPTH) {
+                node = selectChild(node);
+                board.makeMove(this.tree.getMove(node));
+                enter(node, depth++);
+            }
+            // the visits of a leaf include our own virtual loss
+            if(!this.tree.isExpanded(node) && (this.tree.getVisits(node) > this.virtualLoss || node == this.tree.getRoot()) &&
+                    depth < MAX_TREE_DEPTH && expand(board, node) && this.tree.getChildCount(node) > 0) {
+                node = selectChild(node);
+                board.makeMove(this.tree.getMove(node));
+                enter(node, depth++);
+            }
+            // result for the side to move at the end of the path
+            final int result = this.simulator.simulate(board);
+            this.counters.countPlayout();
+            for(int i = depth - 1; i >= 0; i--) {
+                // a node's score belongs to the side that played into it: the leaf's side to move on every other node
+                this.tree.update(this.path[i], (depth - 1 - i) % 2 == 1 ? result : WIN - result, this.virtualLoss);
+                if(i > 0) {
+                    board.unmakeMove();
+                }
+            }
+        }
+
+        private void enter(final int node,
+                           final int depth) {
+            this.path[depth] = node;
+            this.counters.countNode();
+            if(this.virtualLoss != 0) {
+                this.tree.addVirtualLoss(node, this.virtualLoss);
+            }
+        }
+
+        private int selectChild(final int node) {
+            final int first = this.tree.getFirstChild(node);
+            final int count = this.tree.getChildCount(node);
+            final double logVisits = Math.log(Math.max(1, this.tree.getVisits(node)));
+            int best = first;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for(int child = first; child < first + count; child++) {
+                final int visits = this.tree.getVisits(child);
+                if(visits == 0) {
+                    return child;
+                }
+                final double value = this.tree.getScore(child) / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+                if(value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /*
+         * Gives the node a child for every legal move, captures first so they are the first to be tried. A
+         * position where the side to move is already in check, or has no legal move, gets no children: the
+         * game is over there.
+         */
+        private boolean expand(final SearchBoard board,
+                               final int node) {
+            int legal = 0;
+            if(!isEndGame(board)) {
+                final int count = board.generateMoves(this.moveBuffer, 0);
+                for(int pass = 0; pass < 2; pass++) {
+                    for(int i = 0; i < count; i++) {
+                        final int move = this.moveBuffer[i];
+                        if(MoveUtils.isCapture(move) != (pass == 0)) {
+                            continue;
+                        }
+                        board.makeMove(move);
+                        if(!leavesMoverInCheck(board)) {
+                            this.childBuffer[legal++] = move;
+                        }
+                        board.unmakeMove();
+                    }
+                }
+            }
+            return this.tree.expand(node, this.childBuffer, legal);
+        }
+    }
+}
@@ -0,0 +1,647 @@
+package com.cannon.engine.AI.support;
+
+import com.cannon.engine.board.Board;
+import com.cannon.engine.board.MoveList;
+import com.cannon.engine.board.MoveUtils;
+import com.cannon.engine.board.SearchBoard;
+import com.cannon.engine.pieces.Piece.PieceType;
+
+import java.util.Collections;
+import java.util.Observable;
+
+public abstract class AlphaBeta extends Observable implements MoveStrategy {
+
+    // quiet moves that give check are only tried on the first plies of the quiescence search
+    private static final int QUIESCENCE_CHECK_PLIES = 1;
+    // a capture that cannot lift the stand-pat score to the window even with this much positional gain is skipped
+    private static final int DELTA_MARGIN = 100;
+    private static final int INITIAL_PLIES = 64;
+    private static final int POLL_INTERVAL_MASK = (1 << 10) - 1;
+
+    protected final BoardEvaluator evaluator;
+    protected final TranspositionTable transpositionTable;
+    protected final MoveOrdering moveOrdering;
+    private MoveList[] moveLists = new MoveList[INITIAL_PLIES];
+    private final int[] orderBuffer = new int[SearchBoard.MAX_MOVES];
+    private final SearchCounters counters = new SearchCounters();
+    private long searchStartTime;
+    private volatile SearchStatistics statistics;
+    private boolean verbose = true;
+    private volatile boolean stopped;
+    private PruningSettings pruning = PruningSettings.DEFAULT;
+    private boolean nullMoveAllowed = true;
+    private TimeControl nextTimeControl;
+    protected volatile TimeControl timeControl = TimeControl.unlimited();
+
+    protected AlphaBeta() {
+        this(TranspositionTable.DEFAULT_SIZE_MB);
+    }
+
+    protected AlphaBeta(final int transpositionTableMB) {
+        this(new TranspositionTable(transpositionTableMB));
+    }
+
+    protected AlphaBeta(final TranspositionTable transpositionTable) {
+        this.evaluator = StandardBoardEvaluator.get();
+        this.transpositionTable = transpositionTable;
+        this.moveOrdering = new MoveOrdering();
+    }
+
+    public void setPruning(final PruningSettings pruning) {
+        this.pruning = pruning;
+    }
+
+    public PruningSettings getPruning() {
+        return this.pruning;
+    }
+
+    /*
+     * Whether the search reports its progress on standard output. Observers receive the statistics either way.
+     */
+    public void setVerbose(final boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public boolean isVerbose() {
+        return this.verbose;
+    }
+
+    /*
+     * The statistics last published, null before the first search.
+     */
+    public SearchStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    public void clearTranspositionTable() {
+        this.transpositionTable.clear();
+    }
+
+    /*
+     * Forgets what earlier searches learned, the transposition table and the move ordering history of every
+     * search thread, so the next search starts as cold as a new engine.
+     */
+    public void newGame() {
+        clearTranspositionTable();
+        this.moveOrdering.clear();
+        for(final AlphaBeta helper : getHelpers()) {
+            helper.moveOrdering.clear();
+        }
+    }
+
+    public void stop() {
+        this.stopped = true;
+    }
+
+    protected boolean isStopped() {
+        return this.stopped;
+    }
+
+    public void setTimeControl(final TimeControl timeControl) {
+        this.nextTimeControl = timeControl;
+    }
+
+    protected void startSearch() {
+        startSearch(TimeControl.unlimited());
+    }
+
+    protected void startSearch(final TimeControl defaultTimeControl) {
+        resetSearch();
+        takeTimeControl(defaultTimeControl);
+        this.transpositionTable.incrementGeneration();
+    }
+
+    /*
+     * Puts the pending time control, or the default, in charge. A search that is already running picks it up
+     * at its next time check.
+     */
+    protected void takeTimeControl(final TimeControl defaultTimeControl) {
+        this.timeControl = this.nextTimeControl != null ? this.nextTimeControl : defaultTimeControl;
+        this.nextTimeControl = null;
+    }
+
+    protected void resetSearch() {
+        this.counters.reset();
+        this.searchStartTime = System.nanoTime();
+        this.stopped = false;
+        this.nullMoveAllowed = true;
+        this.moveOrdering.startSearch();
+    }
+
+    public int max(final SearchBoard board,
+                   final int depth,
+                   final int highest,
+                   final int lowest) {
+        if(depth <= 0) {
+            return quiescenceMax(board, highest, lowest, 0);
+        }
+        incrementNodeCount();
+        if(isStopped()) {
+            return 0;
+        }
+        final long state = board.getZobristHash();
+
+        final long entry = probe(state);
+        if(entry != TranspositionTable.NO_ENTRY) {
+            if(TranspositionTable.getDepth(entry) >= depth) {
+                final int value = TranspositionTable.getScore(entry);
+                final int bound = TranspositionTable.getBound(entry);
+                if(bound == TranspositionTable.EXACT ||
+                        (bound == TranspositionTable.LOWER_BOUND && value >= lowest) ||
+                        (bound == TranspositionTable.UPPER_BOUND && value <= highest)) {
+                    return value;
+                }
+            }
+        }
+        if (isEndGame(board)) {
+            this.counters.countEvaluation();
+            return this.evaluator.evaluate(board, depth);
+        }
+        final PruningSettings pruning = this.pruning;
+        boolean futile = false;
+        if(isZeroWindow(highest, lowest)) {
+            this.counters.countEvaluation();
+            final int staticValue = this.evaluator.evaluate(board, 0);
+            if(pruning.isRazoringEnabled() && depth <= pruning.getRazorDepth() &&
+                    (long) staticValue + (long) pruning.getRazorMargin() * depth <= highest) {
+                final int value = quiescenceMax(board, highest, lowest, 0);
+                if(value <= highest) {
+                    return value;
+                }
+            }
+            if(pruning.isNullMoveEnabled() && depth >= pruning.getNullMoveMinDepth() && staticValue >= lowest &&
+                    canPass(board) && nullMoveFailsHigh(board, depth, lowest)) {
+                store(state, MoveUtils.NULL_MOVE, lowest, depth, TranspositionTable.LOWER_BOUND);
+                return lowest;
+            }
+            futile = pruning.isFutilityEnabled() && depth <= pruning.getFutilityDepth() &&
+                    (long) staticValue + (long) pruning.getFutilityMargin() * depth <= highest;
+        }
+        int currentHighest = highest;
+        int bestMove = MoveUtils.NULL_MOVE;
+        boolean searchedFirst = false;
+        int movesSearched = 0;
+        final MoveList moves = moveList(board.getPly());
+        board.generateMoves(moves);
+        this.moveOrdering.score(board, moves, entry != TranspositionTable.NO_ENTRY ?
+                TranspositionTable.getMove(entry) : MoveUtils.NULL_MOVE);
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = this.moveOrdering.next(board, moves, i);
+            final boolean killer = this.moveOrdering.isKiller(board, i);
+            board.makeMove(move);
+            if (!leavesMoverInCheck(board)) {
+                final boolean tactical = MoveUtils.isCapture(move) || isEndGame(board);
+                if(futile && searchedFirst && !tactical) {
+                    board.unmakeMove();
+                    continue;
+                }
+                final int childDepth = depth - 1;
+                int value;
+                if(!searchedFirst) {
+                    value = min(board, childDepth, currentHighest, lowest);
+                    searchedFirst = true;
+                } else {
+                    // principal variation search: prove the move is no better, re-search only if it is
+                    final int reduction = lateMoveReduction(depth, movesSearched, tactical || killer);
+                    value = min(board, childDepth - reduction, currentHighest, currentHighest + 1);
+                    if(reduction > 0 && value > currentHighest) {
+                        value = min(board, childDepth, currentHighest, currentHighest + 1);
+                    }
+                    if(value > currentHighest && value < lowest) {
+                        value = min(board, childDepth, currentHighest, lowest);
+                    }
+                }
+                movesSearched++;
+                board.unmakeMove();
+                if(value > currentHighest) {
+                    currentHighest = value;
+                    bestMove = move;
+                }
+                if (lowest <= currentHighest) {
+                    this.counters.countCutoff(movesSearched == 1);
+                    this.moveOrdering.recordCutoff(board, move, depth);
+                    break;
+                }
+            } else {
+                board.unmakeMove();
+            }
+        }
+        if(isStopped()) {
+            return currentHighest;
+        }
+        int flag = TranspositionTable.EXACT;
+        if(currentHighest <= highest) {
+            flag = TranspositionTable.UPPER_BOUND;
+        } else if(currentHighest >= lowest) {
+            flag = TranspositionTable.LOWER_BOUND;
+        }
+        store(state, bestMove, currentHighest, depth, flag);
+        return currentHighest;
+    }
+
+    public int min(final SearchBoard board,
+                   final int depth,
+                   final int highest,
+                   final int lowest) {
+        if(depth <= 0) {
+            return quiescenceMin(board, highest, lowest, 0);
+        }
+        incrementNodeCount();
+        if(isStopped()) {
+            return 0;
+        }
+        final long state = board.getZobristHash();
+
+        final long entry = probe(state);
+        if(entry != TranspositionTable.NO_ENTRY) {
+            if(TranspositionTable.getDepth(entry) >= depth) {
+                final int value = TranspositionTable.getScore(entry);
+                final int bound = TranspositionTable.getBound(entry);
+                if(bound == TranspositionTable.EXACT ||
+                        (bound == TranspositionTable.LOWER_BOUND && value >= lowest) ||
+                        (bound == TranspositionTable.UPPER_BOUND && value <= highest)) {
+                    return value;
+                }
+            }
+        }
+        if (isEndGame(board)) {
+            this.counters.countEvaluation();
+            return this.evaluator.evaluate(board, depth);
+        }
+        final PruningSettings pruning = this.pruning;
+        boolean futile = false;
+        if(isZeroWindow(highest, lowest)) {
+            this.counters.countEvaluation();
+            final int staticValue = this.evaluator.evaluate(board, 0);
+            if(pruning.isRazoringEnabled() && depth <= pruning.getRazorDepth() &&
+                    (long) staticValue - (long) pruning.getRazorMargin() * depth >= lowest) {
+                final int value = quiescenceMin(board, highest, lowest, 0);
+                if(value >= lowest) {
+                    return value;
+                }
+            }
+            if(pruning.isNullMoveEnabled() && depth >= pruning.getNullMoveMinDepth() && staticValue <= highest &&
+                    canPass(board) && nullMoveFailsLow(board, depth, highest)) {
+                store(state, MoveUtils.NULL_MOVE, highest, depth, TranspositionTable.UPPER_BOUND);
+                return highest;
+            }
+            futile = pruning.isFutilityEnabled() && depth <= pruning.getFutilityDepth() &&
+                    (long) staticValue - (long) pruning.getFutilityMargin() * depth >= lowest;
+        }
+        int currentLowest = lowest;
+        int bestMove = MoveUtils.NULL_MOVE;
+        boolean searchedFirst = false;
+        int movesSearched = 0;
+        final MoveList moves = moveList(board.getPly());
+        board.generateMoves(moves);
+        this.moveOrdering.score(board, moves, entry != TranspositionTable.NO_ENTRY ?
+                TranspositionTable.getMove(entry) : MoveUtils.NULL_MOVE);
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = this.moveOrdering.next(board, moves, i);
+            final boolean killer = this.moveOrdering.isKiller(board, i);
+            board.makeMove(move);
+            if (!leavesMoverInCheck(board)) {
+                final boolean tactical = MoveUtils.isCapture(move) || isEndGame(board);
+                if(futile && searchedFirst && !tactical) {
+                    board.unmakeMove();
+                    continue;
+                }
+                final int childDepth = depth - 1;
+                int value;
+                if(!searchedFirst) {
+                    value = max(board, childDepth, highest, currentLowest);
+                    searchedFirst = true;
+                } else {
+                    final int reduction = lateMoveReduction(depth, movesSearched, tactical || killer);
+                    value = max(board, childDepth - reduction, currentLowest - 1, currentLowest);
+                    if(reduction > 0 && value < currentLowest) {
+                        value = max(board, childDepth, currentLowest - 1, currentLowest);
+                    }
+                    if(value < currentLowest && value > highest) {
+                        value = max(board, childDepth, highest, currentLowest);
+                    }
+                }
+                movesSearched++;
+                board.unmakeMove();
+                if(value < currentLowest) {
+                    currentLowest = value;
+                    bestMove = move;
+                }
+                if (currentLowest <= highest) {
+                    this.counters.countCutoff(movesSearched == 1);
+                    this.moveOrdering.recordCutoff(board, move, depth);
+                    break;
+                }
+            } else {
+                board.unmakeMove();
+            }
+        }
+        if(isStopped()) {
+            return currentLowest;
+        }
+        int flag = TranspositionTable.EXACT;
+        if(currentLowest <= highest) {
+            flag = TranspositionTable.UPPER_BOUND;
+        } else if(currentLowest >= lowest) {
+            flag = TranspositionTable.LOWER_BOUND;
+        }
+        store(state, bestMove, currentLowest, depth, flag);
+        return currentLowest;
+    }
+
+    private static boolean isZeroWindow(final int highest,
+                                        final int lowest) {
+        return (long) lowest - highest <= 1;
+    }
+
+    private boolean canPass(final SearchBoard board) {
+        return this.nullMoveAllowed &&
+               board.isTownPlaced(board.getCurrentAlliance()) &&
+               board.isTownPlaced(board.getCurrentAlliance().getOpponent()) &&
+               board.getLastMove(0) != MoveUtils.NULL_MOVE;
+    }
+
+    /*
+     * Null move pruning: if passing the turn still holds the opponent to lowest in a reduced search, a real
+     * move will too. With few soldiers left passing can be a real advantage, so the cutoff is only trusted
+     * after a reduced search of the node itself, without null moves, fails high as well.
+     */
+    private boolean nullMoveFailsHigh(final SearchBoard board,
+                                      final int depth,
+                                      final int lowest) {
+        final int reducedDepth = depth - 1 - this.pruning.getNullMoveReduction();
+        board.makeNullMove();
+        final int value = min(board, reducedDepth, lowest - 1, lowest);
+        board.unmakeMove();
+        if(value < lowest || isStopped()) {
+            return false;
+        }
+        if(board.getSoldierCount(board.getCurrentAlliance()) > this.pruning.getNullMoveVerificationSoldiers()) {
+            return true;
+        }
+        this.nullMoveAllowed = false;
+        final int verified = max(board, reducedDepth, lowest - 1, lowest);
+        this.nullMoveAllowed = true;
+        return verified >= lowest;
+    }
+
+    private boolean nullMoveFailsLow(final SearchBoard board,
+                                     final int depth,
+                                     final int highest) {
+        final int reducedDepth = depth - 1 - this.pruning.getNullMoveReduction();
+        board.makeNullMove();
+        final int value = max(board, reducedDepth, highest, highest + 1);
+        board.unmakeMove();
+        if(value > highest || isStopped()) {
+            return false;
+        }
+        if(board.getSoldierCount(board.getCurrentAlliance()) > this.pruning.getNullMoveVerificationSoldiers()) {
+            return true;
+        }
+        this.nullMoveAllowed = false;
+        final int verified = min(board, reducedDepth, highest, highest + 1);
+        this.nullMoveAllowed = true;
+        return verified <= highest;
+    }
+
+    /*
+     * Late move reductions: quiet moves ordered behind the hash move, captures and killers are first searched
+     * a ply shallower, and by the maximum reduction once the move list is well past them. Captures, killers
+     * and moves that give check are exempt wherever they are ordered.
+     */
+    private int lateMoveReduction(final int depth,
+                                  final int movesSearched,
+                                  final boolean exempt) {
+        if(!this.pruning.isLateMoveReductionsEnabled() || exempt ||
+                depth < this.pruning.getLateMoveMinDepth() ||
+                movesSearched < this.pruning.getLateMoveFullDepthMoves()) {
+            return 0;
+        }
+        return movesSearched >= this.pruning.getLateMoveDeepReductionMoves() &&
+                depth >= this.pruning.getLateMoveDeepReductionDepth() ? this.pruning.getLateMoveMaxReduction() : 1;
+    }
+
+    /*
+     * Quiescence search below the horizon: the side to move may stand pat on the static evaluation or try
+     * captures, cannon shots included, and on the first plies also the quiet moves that give check.
+     */
+    protected int quiescenceMax(final SearchBoard board,
+                                final int highest,
+                                final int lowest,
+                                final int quiescencePly) {
+        incrementNodeCount();
+        this.counters.countQuiescenceNode();
+        if(isStopped()) {
+            return 0;
+        }
+        this.counters.countEvaluation();
+        final int standPat = this.evaluator.evaluate(board, 0);
+        if(isEndGame(board) || standPat >= lowest) {
+            return standPat;
+        }
+        int currentHighest = Math.max(highest, standPat);
+        final int opponentTown = board.getTownPosition(board.getCurrentAlliance().getOpponent());
+        final MoveList moves = moveList(board.getPly());
+        board.generateMoves(moves);
+        this.moveOrdering.score(board, moves, MoveUtils.NULL_MOVE);
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = this.moveOrdering.next(board, moves, i);
+            final boolean capture = MoveUtils.isCapture(move);
+            if(!capture && quiescencePly >= QUIESCENCE_CHECK_PLIES) {
+                break;
+            }
+            if(capture && MoveUtils.getTo(move) != opponentTown &&
+                    standPat + PieceType.SOLDIER.getPieceValue() + DELTA_MARGIN <= currentHighest) {
+                continue;
+            }
+            board.makeMove(move);
+            if(leavesMoverInCheck(board) || (!capture && !isEndGame(board))) {
+                board.unmakeMove();
+                continue;
+            }
+            final int value = quiescenceMin(board, currentHighest, lowest, quiescencePly + 1);
+            board.unmakeMove();
+            currentHighest = Math.max(currentHighest, value);
+            if (lowest <= currentHighest) {
+                break;
+            }
+        }
+        return currentHighest;
+    }
+
+    protected int quiescenceMin(final SearchBoard board,
+                                final int highest,
+                                final int lowest,
+                                final int quiescencePly) {
+        incrementNodeCount();
+        this.counters.countQuiescenceNode();
+        if(isStopped()) {
+            return 0;
+        }
+        this.counters.countEvaluation();
+        final int standPat = this.evaluator.evaluate(board, 0);
+        if(isEndGame(board) || standPat <= highest) {
+            return standPat;
+        }
+        int currentLowest = Math.min(lowest, standPat);
+        final int opponentTown = board.getTownPosition(board.getCurrentAlliance().getOpponent());
+        final MoveList moves = moveList(board.getPly());
+        board.generateMoves(moves);
+        this.moveOrdering.score(board, moves, MoveUtils.NULL_MOVE);
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = this.moveOrdering.next(board, moves, i);
+            final boolean capture = MoveUtils.isCapture(move);
+            if(!capture && quiescencePly >= QUIESCENCE_CHECK_PLIES) {
+                break;
+            }
+            if(capture && MoveUtils.getTo(move) != opponentTown &&
+                    standPat - PieceType.SOLDIER.getPieceValue() - DELTA_MARGIN >= currentLowest) {
+                continue;
+            }
+            board.makeMove(move);
+            if(leavesMoverInCheck(board) || (!capture && !isEndGame(board))) {
+                board.unmakeMove();
+                continue;
+            }
+            final int value = quiescenceMax(board, highest, currentLowest, quiescencePly + 1);
+            board.unmakeMove();
+            currentLowest = Math.min(currentLowest, value);
+            if (currentLowest <= highest) {
+                break;
+            }
+        }
+        return currentLowest;
+    }
+
+    /*
+     * Follows the best moves stored in the transposition table from the given position. The walk stops at
+     * the first missing entry, a stored move that is not legal here, or after maxLength moves.
+     */
+    public MoveList getPrincipalVariation(final Board board,
+                                          final int maxLength) {
+        final MoveList variation = new MoveList();
+        appendPrincipalVariation(board.createSearchBoard(), maxLength, variation);
+        return variation;
+    }
+
+    /*
+     * Appends the transposition table moves from this position until the variation holds maxLength moves.
+     * The moves are played on the given board, which is left at the end of the variation.
+     */
+    protected void appendPrincipalVariation(final SearchBoard searchBoard,
+                                            final int maxLength,
+                                            final MoveList variation) {
+        final MoveList moves = new MoveList();
+        while(variation.size() < maxLength && !isEndGame(searchBoard)) {
+            final int move = TranspositionTable.getMove(this.transpositionTable.probe(searchBoard.getZobristHash()));
+            if(move == MoveUtils.NULL_MOVE) {
+                break;
+            }
+            searchBoard.generateMoves(moves);
+            if(!moves.contains(move)) {
+                break;
+            }
+            searchBoard.makeMove(move);
+            if(leavesMoverInCheck(searchBoard)) {
+                break;
+            }
+            variation.add(move);
+        }
+    }
+
+    protected static boolean isEndGame(final SearchBoard board) {
+        return board.isInCheck(board.getCurrentAlliance());
+    }
+
+    protected static boolean leavesMoverInCheck(final SearchBoard board) {
+        return board.isInCheck(board.getCurrentAlliance().getOpponent());
+    }
+
+    private MoveList moveList(final int ply) {
+        if(ply >= this.moveLists.length) {
+            final MoveList[] moveLists = new MoveList[Math.max(ply + 1, this.moveLists.length * 2)];
+            System.arraycopy(this.moveLists, 0, moveLists, 0, this.moveLists.length);
+            this.moveLists = moveLists;
+        }
+        if(this.moveLists[ply] == null) {
+            this.moveLists[ply] = new MoveList();
+        }
+        return this.moveLists[ply];
+    }
+
+    protected MoveList sortMoves(final MoveList moves) {
+        int sorted = 0;
+        for(int i = 0; i < moves.size(); i++) {
+            if(MoveUtils.isCapture(moves.get(i))) {
+                this.orderBuffer[sorted++] = moves.get(i);
+            }
+        }
+        for(int i = 0; i < moves.size(); i++) {
+            if(!MoveUtils.isCapture(moves.get(i))) {
+                this.orderBuffer[sorted++] = moves.get(i);
+            }
+        }
+        for(int i = 0; i < sorted; i++) {
+            moves.set(i, this.orderBuffer[i]);
+        }
+        return moves;
+    }
+
+    protected void incrementNodeCount() {
+        if((this.counters.countNode() & POLL_INTERVAL_MASK) == 0 && this.timeControl.isHardLimitReached()) {
+            stop();
+        }
+    }
+
+    protected long getNodeCount() {
+        return this.counters.getNodes();
+    }
+
+    private long probe(final long state) {
+        final long entry = this.transpositionTable.probe(state);
+        this.counters.countProbe(entry != TranspositionTable.NO_ENTRY);
+        return entry;
+    }
+
+    private void store(final long state,
+                       final int move,
+                       final int score,
+                       final int depth,
+                       final int bound) {
+        this.counters.countStore(this.transpositionTable.store(state, move, score, depth, bound));
+    }
+
+    /*
+     * Searches running alongside this one whose counters belong in its statistics.
+     */
+    protected Iterable<? extends AlphaBeta> getHelpers() {
+        return Collections.emptyList();
+    }
+
+    protected SearchStatistics publishStatistics(final int depth,
+                                                 final int bestMove) {
+        return publishStatistics(depth, bestMove, 0, 0);
+    }
+
+    /*
+     * Sums the counters of this search and its helpers into a snapshot, keeps it and hands it to the
+     * observers. Helpers still searching are read while they count, so their part is approximate until
+     * they have stopped.
+     */
+    protected SearchStatistics publishStatistics(final int depth,
+                                                 final int bestMove,
+                                                 final long iterationNodes,
+                                                 final long previousIterationNodes) {
+        final SearchCounters total = new SearchCounters();
+        total.add(this.counters);
+        for(final AlphaBeta helper : getHelpers()) {
+            total.add(helper.counters);
+        }
+        final SearchStatistics statistics = new SearchStatistics(depth, bestMove, System.nanoTime() - this.searchStartTime,
+                total, iterationNodes, previousIterationNodes);
+        this.statistics = statistics;
+        setChanged();
+        notifyObservers(statistics);
+        return statistics;
+    }
+}
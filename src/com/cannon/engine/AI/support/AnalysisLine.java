@@ -0,0 +1,47 @@
+package com.cannon.engine.AI.support;
+
+import com.cannon.engine.board.MoveList;
+import com.cannon.engine.board.MoveUtils;
+
+/*
+ * One line of a multi-PV analysis: a root move, its exact score from Light's point of view, the depth it was
+ * searched to and the principal variation starting with the move.
+ */
+public final class AnalysisLine {
+
+    private final int move;
+    private final int score;
+    private final int depth;
+    private final MoveList variation;
+
+    public AnalysisLine(final int move,
+                        final int score,
+                        final int depth,
+                        final MoveList variation) {
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.variation = variation;
+    }
+
+    public int getMove() {
+        return this.move;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public MoveList getVariation() {
+        return this.variation;
+    }
+
+    @Override
+    public String toString() {
+        return MoveUtils.toString(this.move) + " score = " + this.score + " depth = " + this.depth + " pv = " + this.variation;
+    }
+}
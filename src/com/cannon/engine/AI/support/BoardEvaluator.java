@@ -1,8 +1,11 @@
 package com.cannon.engine.AI.support;
 
 import com.cannon.engine.board.Board;
+import com.cannon.engine.board.SearchBoard;
 
 public interface BoardEvaluator {
 
     int evaluate(Board board, int depth);
+
+    int evaluate(SearchBoard board, int depth);
 }
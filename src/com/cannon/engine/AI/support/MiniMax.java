@@ -4,18 +4,24 @@ import com.cannon.engine.AI.support.BoardEvaluator;
 import com.cannon.engine.AI.support.MoveStrategy;
 import com.cannon.engine.AI.support.StandardBoardEvaluator;
 import com.cannon.engine.board.Board;
-import com.cannon.engine.board.Move;
-import com.cannon.engine.player.MoveTransition;
+import com.cannon.engine.board.MoveList;
+import com.cannon.engine.board.MoveUtils;
+import com.cannon.engine.board.SearchBoard;
 
 
 public class MiniMax implements MoveStrategy {
 
     private final BoardEvaluator boardEvaluator;
     private final int searchDepth;
+    private final MoveList[] moveLists;
 
     public MiniMax(final int searchDepth) {
         this.boardEvaluator = new StandardBoardEvaluator();
         this.searchDepth = searchDepth;
+        this.moveLists = new MoveList[searchDepth];
+        for(int i = 0; i < searchDepth; i++) {
+            this.moveLists[i] = new MoveList();
+        }
     }
 
     @Override
@@ -24,24 +30,27 @@ public class MiniMax implements MoveStrategy {
     }
 
     @Override
-    public Move execute(final Board board) {
+    public int execute(final Board board) {
         final long startTime = System.currentTimeMillis();
+        final SearchBoard searchBoard = board.createSearchBoard();
+        final MoveList moves = MoveList.encode(board.currentPlayer().getLegalMoves());
 
-        Move bestMove = null;
+        int bestMove = MoveUtils.NULL_MOVE;
         int highestSeenValue = Integer.MIN_VALUE;
         int lowestSeenValue = Integer.MAX_VALUE;
         int currentValue;
 
         System.out.println(board.currentPlayer() + "Thinking with depth = " +this.searchDepth);
 
-        int numMoves = board.currentPlayer().getLegalMoves().size();
+        int numMoves = moves.size();
 
-        for(final Move move : board.currentPlayer().getLegalMoves()) {
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if(moveTransition.getMoveStatus().isDone()) {
+        for(int i = 0; i < numMoves; i++) {
+            final int move = moves.get(i);
+            searchBoard.makeMove(move);
+            if(!leavesMoverInCheck(searchBoard)) {
                 currentValue = board.currentPlayer().getAlliance().isLight() ?
-                        min(moveTransition.getToBoard(), this.searchDepth - 1) :
-                        max(moveTransition.getToBoard(), this.searchDepth - 1);
+                        min(searchBoard, this.searchDepth - 1) :
+                        max(searchBoard, this.searchDepth - 1);
 
                 if(board.currentPlayer().getAlliance().isLight() && currentValue >= highestSeenValue) {
                     highestSeenValue = currentValue;
@@ -51,6 +60,7 @@ public class MiniMax implements MoveStrategy {
                     bestMove = move;
                 }
             }
+            searchBoard.unmakeMove();
          }
 
         final long executionTime = System.currentTimeMillis() - startTime;
@@ -58,43 +68,53 @@ public class MiniMax implements MoveStrategy {
         return bestMove;
     }
 
-    public int min(final Board board, final int depth) {
+    public int min(final SearchBoard board, final int depth) {
         if(depth == 0 || isEndGameScenario(board)) {
             return this.boardEvaluator.evaluate(board, depth);
         }
 
         int lowestSeenValue = Integer.MAX_VALUE;
-        for(final Move move : board.currentPlayer().getLegalMoves()) {
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if(moveTransition.getMoveStatus().isDone()) {
-                final int currentValue = max(moveTransition.getToBoard(), depth - 1);
+        final MoveList moves = this.moveLists[depth];
+        board.generateMoves(moves);
+        for(int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            if(!leavesMoverInCheck(board)) {
+                final int currentValue = max(board, depth - 1);
                 if(currentValue <= lowestSeenValue) {
                     lowestSeenValue = currentValue;
                 }
             }
+            board.unmakeMove();
         }
         return lowestSeenValue;
     }
 
-    public int max(final Board board, final int depth) {
+    public int max(final SearchBoard board, final int depth) {
         if(depth == 0 || isEndGameScenario(board)) {
             return this.boardEvaluator.evaluate(board, depth);
         }
 
         int highestSeenValue = Integer.MIN_VALUE;
-        for(final Move move : board.currentPlayer().getLegalMoves()) {
-            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
-            if(moveTransition.getMoveStatus().isDone()) {
-                final int currentValue = min(moveTransition.getToBoard(), depth - 1);
+        final MoveList moves = this.moveLists[depth];
+        board.generateMoves(moves);
+        for(int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            if(!leavesMoverInCheck(board)) {
+                final int currentValue = min(board, depth - 1);
                 if(currentValue <= highestSeenValue) {
                     highestSeenValue = currentValue;
                 }
             }
+            board.unmakeMove();
         }
         return highestSeenValue;
     }
 
-    private static boolean isEndGameScenario(final Board board) {
-        return  board.currentPlayer().isInCheck();
+    private static boolean isEndGameScenario(final SearchBoard board) {
+        return board.isInCheck(board.getCurrentAlliance());
+    }
+
+    private static boolean leavesMoverInCheck(final SearchBoard board) {
+        return board.isInCheck(board.getCurrentAlliance().getOpponent());
     }
 }
@@ -0,0 +1,236 @@
+package com.cannon.engine.AI.support;
+
+import com.cannon.engine.board.MoveUtils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/*
+ * Arena of Monte Carlo search nodes kept in parallel primitive arrays. A node is an index; the children of a
+ * node are allocated as one contiguous block when it is expanded. Nodes only hold the move that leads to them,
+ * positions are rebuilt by replaying moves from the root. Scores are in half points for the side that played
+ * the node's move: a win counts 2, a draw 1.
+ *
+ * Several threads may search one tree at once. Counters are updated atomically, a node is claimed for
+ * expansion with a compare-and-set and its children are published with a release store, so readers never see
+ * a half-built block. reroot and clear must not run concurrently with a search.
+ */
+public final class MonteCarloTree {
+
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+    public static final int NO_NODE = -1;
+
+    private static final int UNEXPANDED = -1;
+    private static final int EXPANDING = -2;
+
+    private static final VarHandle NODES = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle SIZE;
+
+    static {
+        try {
+            SIZE = MethodHandles.lookup().findVarHandle(MonteCarloTree.class, "size", int.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int capacity;
+    private int[] moves;
+    private int[] firstChildren;
+    private int[] childCounts;
+    private int[] visits;
+    private int[] scores;
+    private volatile int size;
+    // second arena the reused subtree is compacted into, allocated on the first reroot
+    private MonteCarloTree spare;
+
+    public MonteCarloTree() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MonteCarloTree(final int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("Monte Carlo tree capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.moves = new int[capacity];
+        this.firstChildren = new int[capacity];
+        this.childCounts = new int[capacity];
+        this.visits = new int[capacity];
+        this.scores = new int[capacity];
+        clear();
+    }
+
+    public void clear() {
+        initialize(0, MoveUtils.NULL_MOVE);
+        this.size = 1;
+    }
+
+    public int getRoot() {
+        return 0;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public int getMove(final int node) {
+        return this.moves[node];
+    }
+
+    public boolean isExpanded(final int node) {
+        return (int) NODES.getAcquire(this.firstChildren, node) >= 0;
+    }
+
+    public int getFirstChild(final int node) {
+        return this.firstChildren[node];
+    }
+
+    public int getChildCount(final int node) {
+        return this.childCounts[node];
+    }
+
+    public int getVisits(final int node) {
+        return (int) NODES.getOpaque(this.visits, node);
+    }
+
+    public int getScore(final int node) {
+        return (int) NODES.getOpaque(this.scores, node);
+    }
+
+    /*
+     * Allocates one child per move. Returns false, leaving the node a leaf, when another thread is already
+     * expanding it or the arena has no room left.
+     */
+    public boolean expand(final int node,
+                          final int[] childMoves,
+                          final int count) {
+        if(this.size + count > this.capacity ||
+                !NODES.compareAndSet(this.firstChildren, node, UNEXPANDED, EXPANDING)) {
+            return false;
+        }
+        // the block is only reserved when it fits, so size never runs past the capacity
+        int first;
+        do {
+            first = this.size;
+            if(first + count > this.capacity) {
+                NODES.setRelease(this.firstChildren, node, UNEXPANDED);
+                return false;
+            }
+        } while(!SIZE.compareAndSet(this, first, first + count));
+        for(int i = 0; i < count; i++) {
+            initialize(first + i, childMoves[i]);
+        }
+        this.childCounts[node] = count;
+        NODES.setRelease(this.firstChildren, node, first);
+        return true;
+    }
+
+    /*
+     * Virtual loss: a thread passing through a node counts as a lost visit until its playout is backed up,
+     * which steers the other threads to different parts of the tree.
+     */
+    public void addVirtualLoss(final int node,
+                               final int virtualLoss) {
+        NODES.getAndAdd(this.visits, node, virtualLoss);
+    }
+
+    public void update(final int node,
+                       final int score,
+                       final int virtualLoss) {
+        NODES.getAndAdd(this.visits, node, 1 - virtualLoss);
+        NODES.getAndAdd(this.scores, node, score);
+    }
+
+    public int getMostVisitedChild(final int node) {
+        int best = NO_NODE;
+        if(isExpanded(node)) {
+            final int first = this.firstChildren[node];
+            for(int child = first; child < first + this.childCounts[node]; child++) {
+                if(best == NO_NODE || getVisits(child) > getVisits(best)) {
+                    best = child;
+                }
+            }
+        }
+        return best;
+    }
+
+    /*
+     * Makes node the new root, keeping its subtree and dropping everything else. The subtree is copied
+     * breadth first into the spare arena, which then becomes the live one, so child blocks stay contiguous.
+     */
+    public void reroot(final int node) {
+        if(node == getRoot()) {
+            return;
+        }
+        if(this.spare == null) {
+            this.spare = new MonteCarloTree(this.capacity);
+        }
+        final MonteCarloTree target = this.spare;
+        // until a copy is itself expanded, its first child slot remembers the node it was copied from
+        final int[] sources = target.firstChildren;
+        target.size = 0;
+        target.copyNode(this, node);
+        sources[0] = node;
+        for(int copied = 0; copied < target.size; copied++) {
+            final int source = sources[copied];
+            if(this.firstChildren[source] < 0) {
+                target.firstChildren[copied] = UNEXPANDED;
+                continue;
+            }
+            final int first = this.firstChildren[source];
+            final int count = this.childCounts[source];
+            final int targetFirst = target.size;
+            for(int child = first; child < first + count; child++) {
+                sources[target.size] = child;
+                target.copyNode(this, child);
+            }
+            target.firstChildren[copied] = targetFirst;
+            target.childCounts[copied] = count;
+        }
+        swap(target);
+    }
+
+    private void copyNode(final MonteCarloTree source,
+                          final int node) {
+        final int copy = this.size++;
+        this.moves[copy] = source.moves[node];
+        this.visits[copy] = source.visits[node];
+        this.scores[copy] = source.scores[node];
+        this.childCounts[copy] = 0;
+    }
+
+    private void swap(final MonteCarloTree other) {
+        final int[] moves = this.moves;
+        final int[] firstChildren = this.firstChildren;
+        final int[] childCounts = this.childCounts;
+        final int[] visits = this.visits;
+        final int[] scores = this.scores;
+        final int size = this.size;
+        this.moves = other.moves;
+        this.firstChildren = other.firstChildren;
+        this.childCounts = other.childCounts;
+        this.visits = other.visits;
+        this.scores = other.scores;
+        this.size = other.size;
+        other.moves = moves;
+        other.firstChildren = firstChildren;
+        other.childCounts = childCounts;
+        other.visits = visits;
+        other.scores = scores;
+        other.size = size;
+    }
+
+    private void initialize(final int node,
+                            final int move) {
+        this.moves[node] = move;
+        this.firstChildren[node] = UNEXPANDED;
+        this.childCounts[node] = 0;
+        this.visits[node] = 0;
+        this.scores[node] = 0;
+    }
+}
@@ -0,0 +1,170 @@
+package com.cannon.engine.AI.support;
+
+import com.cannon.engine.board.BoardUtils;
+import com.cannon.engine.board.MoveList;
+import com.cannon.engine.board.MoveUtils;
+import com.cannon.engine.board.SearchBoard;
+import com.cannon.engine.player.Alliance;
+
+import java.util.Arrays;
+
+/*
+ * Orders moves for one search thread: the hash move first, then captures, then the two killer moves of the
+ * ply and finally the remaining quiet moves by their from/to history. Every move is scored once when the
+ * node is expanded and the next best move is selected lazily, so a cutoff saves the rest of the sort.
+ */
+public final class MoveOrdering {
+
+    private static final int INITIAL_PLIES = 64;
+    private static final int KILLERS_PER_PLY = 2;
+
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 29;
+    private static final int KILLER_SCORE = 1 << 28;
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private static final int TOWN_CAPTURE_BONUS = 2;
+    private static final int CANNON_CAPTURE_BONUS = 1;
+
+    private int[][] killers;
+    private int[][] scores;
+    private final int[][] history;
+
+    public MoveOrdering() {
+        this.killers = new int[INITIAL_PLIES][KILLERS_PER_PLY];
+        this.scores = new int[INITIAL_PLIES][];
+        this.history = new int[Alliance.values().length][BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+    }
+
+    /*
+     * Between searches: the killers belong to the plies of the last search and are dropped, the history is
+     * kept at half weight so the next move starts from what the previous ones learned.
+     */
+    public void startSearch() {
+        clearKillers();
+        ageHistory();
+    }
+
+    // forgets everything, for a new game
+    public void clear() {
+        clearKillers();
+        for(final int[] sideHistory : this.history) {
+            Arrays.fill(sideHistory, 0);
+        }
+    }
+
+    private void clearKillers() {
+        for(final int[] plyKillers : this.killers) {
+            Arrays.fill(plyKillers, MoveUtils.NULL_MOVE);
+        }
+    }
+
+    private void ageHistory() {
+        for(final int[] sideHistory : this.history) {
+            for(int i = 0; i < sideHistory.length; i++) {
+                sideHistory[i] >>= 1;
+            }
+        }
+    }
+
+    public void score(final SearchBoard board,
+                      final MoveList moves,
+                      final int hashMove) {
+        final int ply = board.getPly();
+        ensurePly(ply);
+        if(this.scores[ply] == null) {
+            this.scores[ply] = new int[SearchBoard.MAX_MOVES];
+        }
+        final int[] plyScores = this.scores[ply];
+        final int[] plyKillers = this.killers[ply];
+        final int[] sideHistory = this.history[board.getCurrentAlliance().ordinal()];
+        final int opponentTown = board.getTownPosition(board.getCurrentAlliance().getOpponent());
+        for(int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            if(move == hashMove) {
+                plyScores[i] = HASH_MOVE_SCORE;
+            } else if(MoveUtils.isCapture(move)) {
+                plyScores[i] = CAPTURE_SCORE +
+                        (MoveUtils.getTo(move) == opponentTown ? TOWN_CAPTURE_BONUS : 0) +
+                        (MoveUtils.getKind(move) == MoveUtils.CANNON_ATTACK_MOVE ? CANNON_CAPTURE_BONUS : 0);
+            } else if(move == plyKillers[0]) {
+                plyScores[i] = KILLER_SCORE + 1;
+            } else if(move == plyKillers[1]) {
+                plyScores[i] = KILLER_SCORE;
+            } else {
+                plyScores[i] = sideHistory[historyIndex(move)];
+            }
+        }
+    }
+
+    /*
+     * Selection step: swaps the best scored move of moves[index..] into position index and returns it.
+     */
+    public int next(final SearchBoard board,
+                    final MoveList moves,
+                    final int index) {
+        final int[] plyScores = this.scores[board.getPly()];
+        int best = index;
+        for(int i = index + 1; i < moves.size(); i++) {
+            if(plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        final int move = moves.get(best);
+        if(best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            final int score = plyScores[best];
+            plyScores[best] = plyScores[index];
+            plyScores[index] = score;
+        }
+        return move;
+    }
+
+    /*
+     * Whether the move next returned for this index was ordered as one of the ply's killer moves.
+     */
+    public boolean isKiller(final SearchBoard board,
+                            final int index) {
+        final int score = this.scores[board.getPly()][index];
+        return score >= KILLER_SCORE && score < CAPTURE_SCORE;
+    }
+
+    public void recordCutoff(final SearchBoard board,
+                             final int move,
+                             final int depth) {
+        if(MoveUtils.isCapture(move)) {
+            return;
+        }
+        final int ply = board.getPly();
+        ensurePly(ply);
+        final int[] plyKillers = this.killers[ply];
+        if(plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        final int[] sideHistory = this.history[board.getCurrentAlliance().ordinal()];
+        final int index = historyIndex(move);
+        sideHistory[index] += depth * depth;
+        if(sideHistory[index] > HISTORY_LIMIT) {
+            // age the whole table so recent cutoffs keep outweighing old ones
+            ageHistory();
+        }
+    }
+
+    private void ensurePly(final int ply) {
+        if(ply >= this.killers.length) {
+            final int plies = Math.max(ply + 1, this.killers.length * 2);
+            final int oldPlies = this.killers.length;
+            this.killers = Arrays.copyOf(this.killers, plies);
+            for(int i = oldPlies; i < plies; i++) {
+                this.killers[i] = new int[KILLERS_PER_PLY];
+            }
+            this.scores = Arrays.copyOf(this.scores, plies);
+        }
+    }
+
+    private static int historyIndex(final int move) {
+        return MoveUtils.getFrom(move) * BoardUtils.NUM_TILES + MoveUtils.getTo(move);
+    }
+}
@@ -1,9 +1,8 @@
 package com.cannon.engine.AI.support;
 
 import com.cannon.engine.board.Board;
-import com.cannon.engine.board.Move;
 
 public interface MoveStrategy {
 
-    Move execute(Board board);
+    int execute(Board board);
 }
@@ -0,0 +1,135 @@
+package com.cannon.engine.AI.support;
+
+import com.cannon.engine.board.MoveUtils;
+import com.cannon.engine.board.SearchBoard;
+
+import java.util.SplittableRandom;
+
+/*
+ * Plays random games to the end on a search board. Every ply generates the moves of the side to move into a
+ * reused buffer, draws one at random, rejecting picks that leave the mover in check, and stops when the side
+ * to move has lost its town or has no legal move left. Nothing is allocated per ply and the random stream is
+ * seedable, so a playout can be reproduced. The moves of the last playout are kept for callers that record
+ * games.
+ */
+public final class PlayoutSimulator {
+
+    public static final int WIN = 2;
+    public static final int DRAW = 1;
+    public static final int LOSS = 0;
+    public static final int DEFAULT_MAX_PLIES = 200;
+
+    private final BoardEvaluator evaluator;
+    private final SplittableRandom random;
+    private final int maxPlies;
+    private final boolean capturesFirst;
+    private final int[] moveBuffer;
+    private final int[] playedMoves;
+    private int plies;
+    private long totalPlies;
+
+    public PlayoutSimulator(final long seed) {
+        this(new SplittableRandom(seed), DEFAULT_MAX_PLIES, true);
+    }
+
+    /*
+     * Playouts still undecided after maxPlies are scored by the sign of the static evaluation. With
+     * capturesFirst a random capture is played whenever there is one.
+     */
+    public PlayoutSimulator(final SplittableRandom random,
+                            final int maxPlies,
+                            final boolean capturesFirst) {
+        if(maxPlies < 0) {
+            throw new IllegalArgumentException("Playout length must not be negative: " + maxPlies);
+        }
+        this.evaluator = StandardBoardEvaluator.get();
+        this.random = random;
+        this.maxPlies = maxPlies;
+        this.capturesFirst = capturesFirst;
+        this.moveBuffer = new int[SearchBoard.MAX_MOVES];
+        this.playedMoves = new int[maxPlies];
+    }
+
+    /*
+     * Plays one game from the position and returns its result, in WIN, DRAW or LOSS, for the side to move
+     * at the start. The board is restored afterwards.
+     */
+    public int simulate(final SearchBoard board) {
+        final boolean startLight = board.getCurrentAlliance().isLight();
+        final int lightResult = play(board);
+        for(int i = 0; i < this.plies; i++) {
+            board.unmakeMove();
+        }
+        return startLight ? lightResult : WIN - lightResult;
+    }
+
+    public int getPlies() {
+        return this.plies;
+    }
+
+    public int getMove(final int ply) {
+        return this.playedMoves[ply];
+    }
+
+    public long getTotalPlies() {
+        return this.totalPlies;
+    }
+
+    private int play(final SearchBoard board) {
+        this.plies = 0;
+        while(true) {
+            if(board.isInCheck(board.getCurrentAlliance())) {
+                return lossFor(board);
+            }
+            if(this.plies == this.maxPlies) {
+                final int value = this.evaluator.evaluate(board, 0);
+                return value > 0 ? WIN : value < 0 ? LOSS : DRAW;
+            }
+            final int move = playRandomMove(board);
+            if(move == MoveUtils.NULL_MOVE) {
+                return lossFor(board);
+            }
+            this.playedMoves[this.plies++] = move;
+            this.totalPlies++;
+        }
+    }
+
+    private static int lossFor(final SearchBoard board) {
+        return board.getCurrentAlliance().isLight() ? LOSS : WIN;
+    }
+
+    private int playRandomMove(final SearchBoard board) {
+        final int[] moves = this.moveBuffer;
+        int count = board.generateUncachedMoves(moves, 0);
+        int captures = 0;
+        if(this.capturesFirst) {
+            for(int i = 0; i < count; i++) {
+                if(MoveUtils.isCapture(moves[i])) {
+                    final int capture = moves[i];
+                    moves[i] = moves[captures];
+                    moves[captures++] = capture;
+                }
+            }
+        }
+        // draw from the captures first, then from the rest; illegal picks are swapped out of the range
+        while(count > 0) {
+            final boolean fromCaptures = captures > 0;
+            final int index = this.random.nextInt(fromCaptures ? captures : count);
+            final int move = moves[index];
+            board.makeMove(move);
+            if(!board.isInCheck(board.getCurrentAlliance().getOpponent())) {
+                return move;
+            }
+            board.unmakeMove();
+            if(fromCaptures) {
+                captures--;
+                moves[index] = moves[captures];
+                moves[captures] = moves[count - 1];
+            } else {
+                moves[index] = moves[count - 1];
+            }
+            count--;
+        }
+        return MoveUtils.NULL_MOVE;
+    }
+}
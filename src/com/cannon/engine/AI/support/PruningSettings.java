@@ -0,0 +1,221 @@
+package com.cannon.engine.AI.support;
+
+/*
+ * Switches and margins of the forward pruning done by AlphaBeta. Margins are in evaluation units and are
+ * multiplied by the remaining depth; depths are in plies.
+ */
+public final class PruningSettings {
+
+    public static final PruningSettings DEFAULT = new Builder().build();
+    public static final PruningSettings NONE = new Builder()
+            .setNullMove(false)
+            .setLateMoveReductions(false)
+            .setFutility(false)
+            .setRazoring(false)
+            .build();
+
+    private final boolean nullMove;
+    private final int nullMoveMinDepth;
+    private final int nullMoveReduction;
+    private final int nullMoveVerificationSoldiers;
+    private final boolean lateMoveReductions;
+    private final int lateMoveMinDepth;
+    private final int lateMoveFullDepthMoves;
+    private final int lateMoveDeepReductionMoves;
+    private final int lateMoveDeepReductionDepth;
+    private final int lateMoveMaxReduction;
+    private final boolean futility;
+    private final int futilityDepth;
+    private final int futilityMargin;
+    private final boolean razoring;
+    private final int razorDepth;
+    private final int razorMargin;
+
+    private PruningSettings(final Builder builder) {
+        this.nullMove = builder.nullMove;
+        this.nullMoveMinDepth = builder.nullMoveMinDepth;
+        this.nullMoveReduction = builder.nullMoveReduction;
+        this.nullMoveVerificationSoldiers = builder.nullMoveVerificationSoldiers;
+        this.lateMoveReductions = builder.lateMoveReductions;
+        this.lateMoveMinDepth = builder.lateMoveMinDepth;
+        this.lateMoveFullDepthMoves = builder.lateMoveFullDepthMoves;
+        this.lateMoveDeepReductionMoves = builder.lateMoveDeepReductionMoves;
+        this.lateMoveDeepReductionDepth = builder.lateMoveDeepReductionDepth;
+        this.lateMoveMaxReduction = builder.lateMoveMaxReduction;
+        this.futility = builder.futility;
+        this.futilityDepth = builder.futilityDepth;
+        this.futilityMargin = builder.futilityMargin;
+        this.razoring = builder.razoring;
+        this.razorDepth = builder.razorDepth;
+        this.razorMargin = builder.razorMargin;
+    }
+
+    public boolean isNullMoveEnabled() {
+        return this.nullMove;
+    }
+
+    public int getNullMoveMinDepth() {
+        return this.nullMoveMinDepth;
+    }
+
+    public int getNullMoveReduction() {
+        return this.nullMoveReduction;
+    }
+
+    public int getNullMoveVerificationSoldiers() {
+        return this.nullMoveVerificationSoldiers;
+    }
+
+    public boolean isLateMoveReductionsEnabled() {
+        return this.lateMoveReductions;
+    }
+
+    public int getLateMoveMinDepth() {
+        return this.lateMoveMinDepth;
+    }
+
+    public int getLateMoveFullDepthMoves() {
+        return this.lateMoveFullDepthMoves;
+    }
+
+    public int getLateMoveDeepReductionMoves() {
+        return this.lateMoveDeepReductionMoves;
+    }
+
+    public int getLateMoveDeepReductionDepth() {
+        return this.lateMoveDeepReductionDepth;
+    }
+
+    public int getLateMoveMaxReduction() {
+        return this.lateMoveMaxReduction;
+    }
+
+    public boolean isFutilityEnabled() {
+        return this.futility;
+    }
+
+    public int getFutilityDepth() {
+        return this.futilityDepth;
+    }
+
+    public int getFutilityMargin() {
+        return this.futilityMargin;
+    }
+
+    public boolean isRazoringEnabled() {
+        return this.razoring;
+    }
+
+    public int getRazorDepth() {
+        return this.razorDepth;
+    }
+
+    public int getRazorMargin() {
+        return this.razorMargin;
+    }
+
+    public static class Builder {
+        boolean nullMove = true;
+        int nullMoveMinDepth = 3;
+        int nullMoveReduction = 3;
+        // with this few soldiers left a null move cutoff is confirmed by a reduced search
+        int nullMoveVerificationSoldiers = 5;
+        boolean lateMoveReductions = true;
+        int lateMoveMinDepth = 3;
+        int lateMoveFullDepthMoves = 4;
+        // moves searched from this many on, at this depth or more, are reduced by the maximum reduction
+        int lateMoveDeepReductionMoves = 16;
+        int lateMoveDeepReductionDepth = 6;
+        int lateMoveMaxReduction = 2;
+        boolean futility = true;
+        int futilityDepth = 2;
+        int futilityMargin = 150;
+        boolean razoring = true;
+        int razorDepth = 2;
+        int razorMargin = 300;
+
+        public Builder setNullMove(final boolean nullMove) {
+            this.nullMove = nullMove;
+            return this;
+        }
+
+        public Builder setNullMoveMinDepth(final int nullMoveMinDepth) {
+            this.nullMoveMinDepth = nullMoveMinDepth;
+            return this;
+        }
+
+        public Builder setNullMoveReduction(final int nullMoveReduction) {
+            this.nullMoveReduction = nullMoveReduction;
+            return this;
+        }
+
+        public Builder setNullMoveVerificationSoldiers(final int nullMoveVerificationSoldiers) {
+            this.nullMoveVerificationSoldiers = nullMoveVerificationSoldiers;
+            return this;
+        }
+
+        public Builder setLateMoveReductions(final boolean lateMoveReductions) {
+            this.lateMoveReductions = lateMoveReductions;
+            return this;
+        }
+
+        public Builder setLateMoveMinDepth(final int lateMoveMinDepth) {
+            this.lateMoveMinDepth = lateMoveMinDepth;
+            return this;
+        }
+
+        public Builder setLateMoveFullDepthMoves(final int lateMoveFullDepthMoves) {
+            this.lateMoveFullDepthMoves = lateMoveFullDepthMoves;
+            return this;
+        }
+
+        public Builder setLateMoveDeepReductionMoves(final int lateMoveDeepReductionMoves) {
+            this.lateMoveDeepReductionMoves = lateMoveDeepReductionMoves;
+            return this;
+        }
+
+        public Builder setLateMoveDeepReductionDepth(final int lateMoveDeepReductionDepth) {
+            this.lateMoveDeepReductionDepth = lateMoveDeepReductionDepth;
+            return this;
+        }
+
+        public Builder setLateMoveMaxReduction(final int lateMoveMaxReduction) {
+            this.lateMoveMaxReduction = lateMoveMaxReduction;
+            return this;
+        }
+
+        public Builder setFutility(final boolean futility) {
+            this.futility = futility;
+            return this;
+        }
+
+        public Builder setFutilityDepth(final int futilityDepth) {
+            this.futilityDepth = futilityDepth;
+            return this;
+        }
+
+        public Builder setFutilityMargin(final int futilityMargin) {
+            this.futilityMargin = futilityMargin;
+            return this;
+        }
+
+        public Builder setRazoring(final boolean razoring) {
+            this.razoring = razoring;
+            return this;
+        }
+
+        public Builder setRazorDepth(final int razorDepth) {
+            this.razorDepth = razorDepth;
+            return this;
+        }
+
+        public Builder setRazorMargin(final int razorMargin) {
+            this.razorMargin = razorMargin;
+            return this;
+        }
+
+        public PruningSettings build() {
+            return new PruningSettings(this);
+        }
+    }
+}
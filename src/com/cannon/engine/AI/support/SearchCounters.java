@@ -0,0 +1,94 @@
+package com.cannon.engine.AI.support;
+
+/*
+ * The counters of one search thread. Only the thread that owns a stripe writes it, with plain increments;
+ * a snapshot sums the stripes of every thread of a search. The padding keeps the stripes of threads
+ * searching side by side off each other's cache lines.
+ */
+public final class SearchCounters {
+
+    long p01, p02, p03, p04, p05, p06, p07;
+
+    // full-width and quiescence nodes, the latter also counted apart
+    long nodes;
+    long quiescenceNodes;
+    long evaluations;
+    long transpositionProbes;
+    long transpositionHits;
+    long transpositionStores;
+    long transpositionCollisions;
+    // beta cutoffs of full-width nodes, and those produced by the first move searched
+    long cutoffs;
+    long firstMoveCutoffs;
+    long playouts;
+
+    long p11, p12, p13, p14, p15, p16, p17;
+
+    // returns the node count including this node
+    public long countNode() {
+        return ++this.nodes;
+    }
+
+    public void countQuiescenceNode() {
+        this.quiescenceNodes++;
+    }
+
+    public void countEvaluation() {
+        this.evaluations++;
+    }
+
+    public void countProbe(final boolean hit) {
+        this.transpositionProbes++;
+        if(hit) {
+            this.transpositionHits++;
+        }
+    }
+
+    public void countStore(final boolean collision) {
+        this.transpositionStores++;
+        if(collision) {
+            this.transpositionCollisions++;
+        }
+    }
+
+    public void countCutoff(final boolean firstMove) {
+        this.cutoffs++;
+        if(firstMove) {
+            this.firstMoveCutoffs++;
+        }
+    }
+
+    public void countPlayout() {
+        this.playouts++;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public void reset() {
+        this.nodes = 0;
+        this.quiescenceNodes = 0;
+        this.evaluations = 0;
+        this.transpositionProbes = 0;
+        this.transpositionHits = 0;
+        this.transpositionStores = 0;
+        this.transpositionCollisions = 0;
+        this.cutoffs = 0;
+        this.firstMoveCutoffs = 0;
+        this.playouts = 0;
+    }
+
+    public void add(final SearchCounters other) {
+        this.nodes += other.nodes;
+        this.quiescenceNodes += other.quiescenceNodes;
+        this.evaluations += other.evaluations;
+        this.transpositionProbes += other.transpositionProbes;
+        this.transpositionHits += other.transpositionHits;
+        this.transpositionStores += other.transpositionStores;
+        this.transpositionCollisions += other.transpositionCollisions;
+        this.cutoffs += other.cutoffs;
+        this.firstMoveCutoffs += other.firstMoveCutoffs;
+        this.playouts += other.playouts;
+    }
+}
@@ -0,0 +1,167 @@
+package com.cannon.engine.AI.support;
+
+import com.cannon.engine.board.MoveUtils;
+
+/*
+ * A snapshot of a search: the depth and best move reached so far with the counters of every search thread
+ * summed up. Engines publish one to their observers after every iteration and at the end of a search.
+ */
+public final class SearchStatistics {
+
+    private final int depth;
+    private final int bestMove;
+    private final long elapsedNanos;
+    private final long nodes;
+    private final long quiescenceNodes;
+    private final long evaluations;
+    private final long transpositionProbes;
+    private final long transpositionHits;
+    private final long transpositionStores;
+    private final long transpositionCollisions;
+    private final long cutoffs;
+    private final long firstMoveCutoffs;
+    private final long playouts;
+    private final long iterationNodes;
+    private final long previousIterationNodes;
+
+    public SearchStatistics(final int depth,
+                            final int bestMove,
+                            final long elapsedNanos,
+                            final SearchCounters counters) {
+        this(depth, bestMove, elapsedNanos, counters, 0, 0);
+    }
+
+    /*
+     * iterationNodes and previousIterationNodes are the nodes the main thread spent on the last two
+     * iterations, zero when there are none.
+     */
+    public SearchStatistics(final int depth,
+                            final int bestMove,
+                            final long elapsedNanos,
+                            final SearchCounters counters,
+                            final long iterationNodes,
+                            final long previousIterationNodes) {
+        this.depth = depth;
+        this.bestMove = bestMove;
+        this.elapsedNanos = elapsedNanos;
+        this.nodes = counters.nodes;
+        this.quiescenceNodes = counters.quiescenceNodes;
+        this.evaluations = counters.evaluations;
+        this.transpositionProbes = counters.transpositionProbes;
+        this.transpositionHits = counters.transpositionHits;
+        this.transpositionStores = counters.transpositionStores;
+        this.transpositionCollisions = counters.transpositionCollisions;
+        this.cutoffs = counters.cutoffs;
+        this.firstMoveCutoffs = counters.firstMoveCutoffs;
+        this.playouts = counters.playouts;
+        this.iterationNodes = iterationNodes;
+        this.previousIterationNodes = previousIterationNodes;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public int getBestMove() {
+        return this.bestMove;
+    }
+
+    public long getElapsedMillis() {
+        return this.elapsedNanos / 1_000_000;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getQuiescenceNodes() {
+        return this.quiescenceNodes;
+    }
+
+    public long getEvaluations() {
+        return this.evaluations;
+    }
+
+    public long getCutoffs() {
+        return this.cutoffs;
+    }
+
+    public long getPlayouts() {
+        return this.playouts;
+    }
+
+    public long getNodesPerSecond() {
+        return perSecond(this.nodes);
+    }
+
+    public long getPlayoutsPerSecond() {
+        return perSecond(this.playouts);
+    }
+
+    public double getTranspositionHitRate() {
+        return ratio(this.transpositionHits, this.transpositionProbes);
+    }
+
+    // stores per full-width node
+    public double getTranspositionStoreRate() {
+        return ratio(this.transpositionStores, this.nodes - this.quiescenceNodes);
+    }
+
+    // share of the stores that overwrote an entry of another position from the same search
+    public double getTranspositionCollisionRate() {
+        return ratio(this.transpositionCollisions, this.transpositionStores);
+    }
+
+    public double getFirstMoveCutoffRate() {
+        return ratio(this.firstMoveCutoffs, this.cutoffs);
+    }
+
+    /*
+     * The growth of the main thread's node count from the previous iteration to the last one, or, without
+     * two iterations to compare, the branching factor that reaches the node count in depth plies.
+     */
+    public double getEffectiveBranchingFactor() {
+        if(this.iterationNodes > 0 && this.previousIterationNodes > 0) {
+            return (double) this.iterationNodes / this.previousIterationNodes;
+        }
+        return this.depth > 0 && this.nodes > 0 ? Math.pow(this.nodes, 1.0 / this.depth) : 0;
+    }
+
+    public double getQuiescenceShare() {
+        return ratio(this.quiescenceNodes, this.nodes);
+    }
+
+    private long perSecond(final long count) {
+        return this.elapsedNanos > 0 ? (long) (count * 1e9 / this.elapsedNanos) : 0;
+    }
+
+    private static double ratio(final long count,
+                                final long total) {
+        return total > 0 ? (double) count / total : 0;
+    }
+
+    // figures a strategy does not count, such as playouts in an alpha-beta search, are left out
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(String.format("depth = %d best = %s nodes = %d time = %d ms nps = %d",
+                this.depth, MoveUtils.toString(this.bestMove), this.nodes, getElapsedMillis(), getNodesPerSecond()));
+        if(this.playouts > 0) {
+            builder.append(String.format(" playouts = %d playout rate = %d", this.playouts, getPlayoutsPerSecond()));
+        }
+        if(this.transpositionProbes > 0) {
+            builder.append(String.format(" tt hit = %.1f%% store = %.2f collision = %.1f%%",
+                    100 * getTranspositionHitRate(), getTranspositionStoreRate(), 100 * getTranspositionCollisionRate()));
+        }
+        if(this.cutoffs > 0) {
+            builder.append(String.format(" first cutoff = %.1f%%", 100 * getFirstMoveCutoffRate()));
+        }
+        if(this.depth > 0) {
+            builder.append(String.format(" ebf = %.2f", getEffectiveBranchingFactor()));
+        }
+        if(this.quiescenceNodes > 0) {
+            builder.append(String.format(" q share = %.1f%%", 100 * getQuiescenceShare()));
+        }
+        return builder.toString();
+    }
+}
@@ -1,7 +1,9 @@
 package com.cannon.engine.AI.support;
 
 import com.cannon.engine.board.Board;
+import com.cannon.engine.board.SearchBoard;
 import com.cannon.engine.pieces.Piece;
+import com.cannon.engine.player.Alliance;
 import com.cannon.engine.player.Player;
 
 public final class StandardBoardEvaluator implements BoardEvaluator {
@@ -20,14 +22,28 @@ public final class StandardBoardEvaluator implements BoardEvaluator {
                scorePlayer(board, board.darkPlayer(), depth);
     }
 
+    @Override
+    public int evaluate(final SearchBoard board, final int depth) {
+        return scorePlayer(board, Alliance.LIGHT, depth) -
+               scorePlayer(board, Alliance.DARK, depth);
+    }
+
     private int scorePlayer(final Board board, final Player player, final int depth) {
         return pieceValue(player) + mobility(player) + check(player, depth);
     }
 
+    private int scorePlayer(final SearchBoard board, final Alliance alliance, final int depth) {
+        return board.getPieceValue(alliance) + board.countMoves(alliance) + check(board, alliance, depth);
+    }
+
     private static int check(final Player player, int depth) {
         return player.getOpponent().isInCheck() ? CHECK_BONUS * depthBonus(depth) : 0;
     }
 
+    private static int check(final SearchBoard board, final Alliance alliance, final int depth) {
+        return board.isInCheck(alliance.getOpponent()) ? CHECK_BONUS * depthBonus(depth) : 0;
+    }
+
     private static int depthBonus(int depth) {
         return depth == 0 ? 1 : DEPTH_BONUS * depth;
     }
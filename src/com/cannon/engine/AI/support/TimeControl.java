@@ -0,0 +1,53 @@
+package com.cannon.engine.AI.support;
+
+import java.util.concurrent.TimeUnit;
+
+public final class TimeControl {
+
+    private static final int MOVES_TO_GO = 30;
+    private static final int HARD_LIMIT_FACTOR = 4;
+    private static final long SAFETY_MARGIN_MILLIS = 50;
+
+    private final long startTime;
+    private final long softLimit;
+    private final long hardLimit;
+
+    private TimeControl(final long softLimitMillis,
+                        final long hardLimitMillis) {
+        this.startTime = System.nanoTime();
+        this.softLimit = toNanos(softLimitMillis);
+        this.hardLimit = toNanos(Math.max(softLimitMillis, hardLimitMillis));
+    }
+
+    public static TimeControl unlimited() {
+        return new TimeControl(Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    public static TimeControl forMove(final long softLimitMillis,
+                                      final long hardLimitMillis) {
+        return new TimeControl(softLimitMillis, hardLimitMillis);
+    }
+
+    public static TimeControl forClock(final long remainingMillis,
+                                       final long incrementMillis) {
+        final long available = Math.max(0, remainingMillis - SAFETY_MARGIN_MILLIS);
+        final long softLimit = Math.min(available, available / MOVES_TO_GO + incrementMillis / 2);
+        return new TimeControl(softLimit, Math.min(available, softLimit * HARD_LIMIT_FACTOR));
+    }
+
+    public boolean isSoftLimitReached() {
+        return System.nanoTime() - this.startTime >= this.softLimit;
+    }
+
+    public boolean isHardLimitReached() {
+        return System.nanoTime() - this.startTime >= this.hardLimit;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.startTime);
+    }
+
+    private static long toNanos(final long millis) {
+        return millis >= TimeUnit.NANOSECONDS.toMillis(Long.MAX_VALUE) ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,141 @@
+package com.cannon.engine.AI.support;
+
+import com.cannon.engine.board.MoveUtils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+public final class TranspositionTable {
+
+    public static final int DEFAULT_SIZE_MB = 32;
+
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = -1;
+    public static final int UPPER_BOUND = 1;
+
+    public static final long NO_ENTRY = 0L;
+
+    // one entry is a (key ^ data, data) pair; a bucket holds a depth-preferred and an always-replace entry
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int LONGS_PER_BUCKET = 2 * LONGS_PER_ENTRY;
+    private static final int BYTES_PER_BUCKET = LONGS_PER_BUCKET * Long.BYTES;
+
+    // data layout: score (32) | move (18) | depth (6) | bound (2) | generation (6)
+    private static final int MOVE_SHIFT = 32;
+    private static final int DEPTH_SHIFT = 50;
+    private static final int BOUND_SHIFT = 56;
+    private static final int GENERATION_SHIFT = 58;
+    private static final long MOVE_MASK = (1L << 18) - 1;
+    private static final int MAX_DEPTH = (1 << 6) - 1;
+    private static final int GENERATION_MASK = (1 << 6) - 1;
+
+    private static final VarHandle TABLE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int generation;
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    public TranspositionTable(final int sizeMB) {
+        if(sizeMB <= 0) {
+            throw new IllegalArgumentException("Transposition table size must be positive: " + sizeMB);
+        }
+        final long buckets = Long.highestOneBit(((long) sizeMB << 20) / BYTES_PER_BUCKET);
+        final long maxBuckets = Integer.highestOneBit(Integer.MAX_VALUE / LONGS_PER_BUCKET);
+        this.bucketMask = (int) Math.min(buckets, maxBuckets) - 1;
+        this.table = new long[(this.bucketMask + 1) * LONGS_PER_BUCKET];
+        this.generation = 0;
+    }
+
+    public long probe(final long key) {
+        final int index = bucketIndex(key);
+        for(int entry = index; entry < index + LONGS_PER_BUCKET; entry += LONGS_PER_ENTRY) {
+            final long data = (long) TABLE.getOpaque(this.table, entry + 1);
+            if(data != NO_ENTRY && ((long) TABLE.getOpaque(this.table, entry) ^ data) == key) {
+                return data;
+            }
+        }
+        return NO_ENTRY;
+    }
+
+    /*
+     * Returns true when the store overwrote an entry of another position from the current generation, a
+     * collision that loses the work of this search.
+     */
+    public boolean store(final long key,
+                         final int move,
+                         final int score,
+                         final int depth,
+                         final int bound) {
+        final int index = bucketIndex(key);
+        final int generation = this.generation;
+        final long preferred = (long) TABLE.getOpaque(this.table, index + 1);
+        final int entry = preferred == NO_ENTRY ||
+                ((long) TABLE.getOpaque(this.table, index) ^ preferred) == key ||
+                depth >= getDepth(preferred) ||
+                getGeneration(preferred) != generation ? index : index + LONGS_PER_ENTRY;
+        final long replaced = entry == index ? preferred : (long) TABLE.getOpaque(this.table, entry + 1);
+        final boolean collision = replaced != NO_ENTRY && getGeneration(replaced) == generation &&
+                ((long) TABLE.getOpaque(this.table, entry) ^ replaced) != key;
+        // a node that failed low has no best move of its own, keep the one an earlier visit found
+        final int entryMove = move == MoveUtils.NULL_MOVE ? getMove(probe(key)) : move;
+        final long data = pack(entryMove, score, depth, bound, generation);
+        TABLE.setOpaque(this.table, entry, key ^ data);
+        TABLE.setOpaque(this.table, entry + 1, data);
+        return collision;
+    }
+
+    public void incrementGeneration() {
+        this.generation = (this.generation + 1) & GENERATION_MASK;
+    }
+
+    public void clear() {
+        Arrays.fill(this.table, NO_ENTRY);
+        this.generation = 0;
+    }
+
+    public int getSizeMB() {
+        return (int) (((long) this.table.length * Long.BYTES) >> 20);
+    }
+
+    public static int getScore(final long data) {
+        return (int) data;
+    }
+
+    public static int getMove(final long data) {
+        return (int) ((data >>> MOVE_SHIFT) & MOVE_MASK);
+    }
+
+    public static int getDepth(final long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & MAX_DEPTH);
+    }
+
+    public static int getBound(final long data) {
+        return (int) ((data >>> BOUND_SHIFT) & 3) - 2;
+    }
+
+    private static int getGeneration(final long data) {
+        return (int) ((data >>> GENERATION_SHIFT) & GENERATION_MASK);
+    }
+
+    private static long pack(final int move,
+                             final int score,
+                             final int depth,
+                             final int bound,
+                             final int generation) {
+        // bounds are stored offset by two so that a stored entry is never NO_ENTRY
+        return (score & 0xFFFFFFFFL) |
+               ((move & MOVE_MASK) << MOVE_SHIFT) |
+               ((long) Math.max(0, Math.min(depth, MAX_DEPTH)) << DEPTH_SHIFT) |
+               ((long) (bound + 2) << BOUND_SHIFT) |
+               ((long) generation << GENERATION_SHIFT);
+    }
+
+    private int bucketIndex(final long key) {
+        return ((int) (key ^ (key >>> 32)) & this.bucketMask) * LONGS_PER_BUCKET;
+    }
+}
@@ -0,0 +1,151 @@
+package com.cannon.engine.board;
+
+public final class BitBoard {
+
+    public static final BitBoard EMPTY = new BitBoard(0L, 0L);
+    public static final BitBoard ALL = new BitBoard(-1L, (1L << (BoardUtils.NUM_TILES - 64)) - 1);
+
+    private final long low;
+    private final long high;
+
+    public BitBoard(final long low,
+                    final long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    public static BitBoard of(final int... squares) {
+        long low = 0L;
+        long high = 0L;
+        for(final int square : squares) {
+            if(square < 64) {
+                low |= 1L << square;
+            } else {
+                high |= 1L << (square - 64);
+            }
+        }
+        return new BitBoard(low, high);
+    }
+
+    public static BitBoard column(final int columnNumber) {
+        long low = 0L;
+        long high = 0L;
+        for(int square = columnNumber; square < BoardUtils.NUM_TILES; square += BoardUtils.NUM_TILES_PER_ROW) {
+            if(square < 64) {
+                low |= 1L << square;
+            } else {
+                high |= 1L << (square - 64);
+            }
+        }
+        return new BitBoard(low, high);
+    }
+
+    public static BitBoard row(final int firstSquare) {
+        long low = 0L;
+        long high = 0L;
+        for(int square = firstSquare; square < firstSquare + BoardUtils.NUM_TILES_PER_ROW; square++) {
+            if(square < 64) {
+                low |= 1L << square;
+            } else {
+                high |= 1L << (square - 64);
+            }
+        }
+        return new BitBoard(low, high);
+    }
+
+    public static boolean isSet(final long low,
+                                final long high,
+                                final int square) {
+        return square < 64 ? (low & (1L << square)) != 0 : (high & (1L << (square - 64))) != 0;
+    }
+
+    public long getLow() {
+        return this.low;
+    }
+
+    public long getHigh() {
+        return this.high;
+    }
+
+    public boolean isSet(final int square) {
+        return isSet(this.low, this.high, square);
+    }
+
+    public BitBoard set(final int square) {
+        return square < 64 ? new BitBoard(this.low | (1L << square), this.high) :
+                             new BitBoard(this.low, this.high | (1L << (square - 64)));
+    }
+
+    public BitBoard clear(final int square) {
+        return square < 64 ? new BitBoard(this.low & ~(1L << square), this.high) :
+                             new BitBoard(this.low, this.high & ~(1L << (square - 64)));
+    }
+
+    public BitBoard and(final BitBoard other) {
+        return new BitBoard(this.low & other.low, this.high & other.high);
+    }
+
+    public BitBoard or(final BitBoard other) {
+        return new BitBoard(this.low | other.low, this.high | other.high);
+    }
+
+    public BitBoard andNot(final BitBoard other) {
+        return new BitBoard(this.low & ~other.low, this.high & ~other.high);
+    }
+
+    public boolean isEmpty() {
+        return this.low == 0L && this.high == 0L;
+    }
+
+    public int count() {
+        return Long.bitCount(this.low) + Long.bitCount(this.high);
+    }
+
+    public int firstSquare() {
+        if(this.low != 0L) {
+            return Long.numberOfTrailingZeros(this.low);
+        }
+        return this.high != 0L ? 64 + Long.numberOfTrailingZeros(this.high) : -1;
+    }
+
+    public int nextSquare(final int fromSquare) {
+        if(fromSquare < 64) {
+            final long remaining = this.low & (-1L << fromSquare);
+            if(remaining != 0L) {
+                return Long.numberOfTrailingZeros(remaining);
+            }
+            return this.high != 0L ? 64 + Long.numberOfTrailingZeros(this.high) : -1;
+        }
+        final long remaining = this.high & (-1L << (fromSquare - 64));
+        return remaining != 0L ? 64 + Long.numberOfTrailingZeros(remaining) : -1;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if(this == other) {
+            return true;
+        }
+        if(!(other instanceof BitBoard)) {
+            return false;
+        }
+        final BitBoard otherBitBoard = (BitBoard) other;
+        return this.low == otherBitBoard.low && this.high == otherBitBoard.high;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(this.low) + Long.hashCode(this.high);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            builder.append(isSet(i) ? " 1" : " .");
+            if((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+}
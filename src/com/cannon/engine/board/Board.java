@@ -16,9 +16,16 @@ import java.util.*;
 
 public class Board {
 
-    private final List<Tile> gameBoard;
+    private final Piece[] gameBoard;
     private final Collection<Piece> lightPieces;
     private final Collection<Piece> darkPieces;
+    private final BitBoard lightOccupancy;
+    private final BitBoard darkOccupancy;
+    private final BitBoard lightSoldiers;
+    private final BitBoard darkSoldiers;
+    private final int lightTown;
+    private final int darkTown;
+    private final SearchBoard position;
 
     private final LightPlayer lightPlayer;
     private final DarkPlayer darkPlayer;
@@ -30,10 +37,15 @@ public class Board {
         this.gameBoard = createGameBoard(builder);
         this.lightPieces = calculateActivePieces(this.gameBoard, Alliance.LIGHT);
         this.darkPieces = calculateActivePieces(this.gameBoard, Alliance.DARK);
-        final Collection<Move> lightStandardLegalMoves = calculateLegalMoves(this.lightPieces);
-        final Collection<Move> darkStandardLegalMoves = calculateLegalMoves(this.darkPieces);
-        this.lightPlayer = new LightPlayer(this, lightStandardLegalMoves, darkStandardLegalMoves);
-        this.darkPlayer = new DarkPlayer(this, lightStandardLegalMoves, darkStandardLegalMoves);
+        this.lightOccupancy = calculateOccupancy(this.lightPieces);
+        this.darkOccupancy = calculateOccupancy(this.darkPieces);
+        this.lightTown = calculateTownPosition(this.lightPieces);
+        this.darkTown = calculateTownPosition(this.darkPieces);
+        this.lightSoldiers = this.lightTown == -1 ? this.lightOccupancy : this.lightOccupancy.clear(this.lightTown);
+        this.darkSoldiers = this.darkTown == -1 ? this.darkOccupancy : this.darkOccupancy.clear(this.darkTown);
+        this.position = createPosition(builder);
+        this.lightPlayer = new LightPlayer(this);
+        this.darkPlayer = new DarkPlayer(this);
         this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.lightPlayer, this.darkPlayer);
         this.cannonSoldier = builder.cannonSoldier;
         this.transitionMove = builder.transitionMove != null ? builder.transitionMove : MoveFactory.getNullMove();
@@ -43,7 +55,7 @@ public class Board {
     public String toString() {
         final StringBuilder builder = new StringBuilder();
         for(int i = 0; i < BoardUtils.NUM_TILES; i++) {
-            final String tileText = this.gameBoard.get(i).toString();
+            final String tileText = getTile(i).toString();
             builder.append(String.format("%3s", tileText));
             if((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
                 builder.append("\n");
@@ -77,6 +89,10 @@ public class Board {
     }
 
 
+    public Collection<Move> calculateLegalMoves(final Alliance alliance) {
+        return calculateLegalMoves(alliance.isLight() ? this.lightPieces : this.darkPieces);
+    }
+
     private Collection<Move> calculateLegalMoves(final Collection<Piece> pieces) {
         final List<Move> legalMoves = new ArrayList<>();
         for(final Piece piece : pieces) {
@@ -85,37 +101,107 @@ public class Board {
         return ImmutableList.copyOf(legalMoves);
     }
 
-    private static Collection<Piece> calculateActivePieces(final List<Tile> gameBoard, final Alliance alliance) {
+    private static Collection<Piece> calculateActivePieces(final Piece[] gameBoard, final Alliance alliance) {
         final List<Piece> activePieces = new ArrayList<>();
-        for(final Tile tile : gameBoard) {
-            if(tile.isTileOccupied()) {
-                final Piece piece = tile.getPiece();
-                if(piece.getPieceAlliance() == alliance) {
-                    if(piece.isFirstMove()) {
-                        activePieces.add(piece);
-                    } else {
-                        activePieces.add(piece);
-                    }
-                }
+        for(final Piece piece : gameBoard) {
+            if(piece != null && piece.getPieceAlliance() == alliance) {
+                activePieces.add(piece);
             }
         }
         return ImmutableList.copyOf(activePieces);
     }
 
+    private static BitBoard calculateOccupancy(final Collection<Piece> pieces) {
+        long low = 0L;
+        long high = 0L;
+        for(final Piece piece : pieces) {
+            final int square = piece.getPiecePosition();
+            if(square < 64) {
+                low |= 1L << square;
+            } else {
+                high |= 1L << (square - 64);
+            }
+        }
+        return new BitBoard(low, high);
+    }
+
+    private static int calculateTownPosition(final Collection<Piece> pieces) {
+        for(final Piece piece : pieces) {
+            if(piece.getPieceType().isTown()) {
+                return piece.getPiecePosition();
+            }
+        }
+        return -1;
+    }
+
     public Move getTransitionMove() {
         return this.transitionMove;
     }
 
     public Tile getTile(final int tileCoordinate) {
-        return gameBoard.get(tileCoordinate);
+        return Tile.createTile(tileCoordinate, this.gameBoard[tileCoordinate]);
     }
 
-    private static List<Tile> createGameBoard(final Builder builder) {
-        final Tile[] tiles = new Tile[BoardUtils.NUM_TILES];
-        for(int i = 0; i < BoardUtils.NUM_TILES; i++) {
-            tiles[i] = Tile.createTile(i, builder.boardConfig.get(i));
+    public Piece getPiece(final int tileCoordinate) {
+        return this.gameBoard[tileCoordinate];
+    }
+
+    public boolean isTileOccupied(final int tileCoordinate) {
+        return this.lightOccupancy.isSet(tileCoordinate) || this.darkOccupancy.isSet(tileCoordinate);
+    }
+
+    public BitBoard getOccupancy(final Alliance alliance) {
+        return alliance.isLight() ? this.lightOccupancy : this.darkOccupancy;
+    }
+
+    public BitBoard getSoldiers(final Alliance alliance) {
+        return alliance.isLight() ? this.lightSoldiers : this.darkSoldiers;
+    }
+
+    public int getTownPosition(final Alliance alliance) {
+        return alliance.isLight() ? this.lightTown : this.darkTown;
+    }
+
+    public boolean isTownPlaced(final Alliance alliance) {
+        final int town = getTownPosition(alliance);
+        return town == -1 || !this.gameBoard[town].isFirstMove();
+    }
+
+    private SearchBoard createPosition(final Builder builder) {
+        final Move transitionMove = builder.transitionMove;
+        if(transitionMove != null && transitionMove.getBoard() != null) {
+            return transitionMove.getBoard().createChildPosition(MoveUtils.encode(transitionMove));
+        }
+        return new SearchBoard(this.lightOccupancy, this.darkOccupancy, this.lightTown, this.darkTown,
+                isTownPlaced(Alliance.LIGHT), isTownPlaced(Alliance.DARK), builder.nextMoveMaker);
+    }
+
+    private synchronized SearchBoard createChildPosition(final int move) {
+        return this.position.createChild(move);
+    }
+
+    public boolean isInCheck(final Alliance alliance) {
+        return this.position.isInCheck(alliance);
+    }
+
+    public long getZobristHash() {
+        return this.position.getZobristHash();
+    }
+
+    public synchronized int generatePieceMoves(final int tileCoordinate, final int[] moves, final int start) {
+        return this.position.generatePieceMoves(tileCoordinate, moves, start);
+    }
+
+    public synchronized SearchBoard createSearchBoard() {
+        return new SearchBoard(this.position);
+    }
+
+    private static Piece[] createGameBoard(final Builder builder) {
+        final Piece[] pieces = new Piece[BoardUtils.NUM_TILES];
+        for(final Piece piece : builder.boardConfig.values()) {
+            pieces[piece.getPiecePosition()] = piece;
         }
-        return ImmutableList.copyOf(tiles);
+        return pieces;
     }
 
     public static Board createStandardBoard() {
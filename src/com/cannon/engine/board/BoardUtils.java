@@ -9,19 +9,19 @@ import static com.cannon.engine.board.Move.MoveFactory;
 
 public class BoardUtils {
 
-    public static final boolean[] FIRST_COLUMN = initColumn(0);
-    public static final boolean[] SECOND_COLUMN = initColumn(1);
-    public static final boolean[] THIRD_COLUMN = initColumn(2);
-    public static final boolean[] FOURTH_COLUMN = initColumn(3);
-    public static final boolean[] FIFTH_COLUMN = initColumn(4);
-    public static final boolean[] SIXTH_COLUMN = initColumn(5);
-    public static final boolean[] SEVENTH_COLUMN = initColumn(6);
-    public static final boolean[] EIGHT_COLUMN = initColumn(7);
-    public static final boolean[] NINTH_COLUMN = initColumn(8);
-    public static final boolean[] TENTH_COLUMN = initColumn(9);
-
-    public static final boolean[] TENTH_RANK = initRow(0);
-    public static final boolean[] FIRST_RANK = initRow(90);
+    public static final BitBoard FIRST_COLUMN = initColumn(0);
+    public static final BitBoard SECOND_COLUMN = initColumn(1);
+    public static final BitBoard THIRD_COLUMN = initColumn(2);
+    public static final BitBoard FOURTH_COLUMN = initColumn(3);
+    public static final BitBoard FIFTH_COLUMN = initColumn(4);
+    public static final BitBoard SIXTH_COLUMN = initColumn(5);
+    public static final BitBoard SEVENTH_COLUMN = initColumn(6);
+    public static final BitBoard EIGHT_COLUMN = initColumn(7);
+    public static final BitBoard NINTH_COLUMN = initColumn(8);
+    public static final BitBoard TENTH_COLUMN = initColumn(9);
+
+    public static final BitBoard TENTH_RANK = initRow(0);
+    public static final BitBoard FIRST_RANK = initRow(90);
 
     public static final String[] ALGEBREIC_NOTATION = initializeAlgebreicNotation();
     public static final Map<String, Integer> POSITION_TO_COORDINATE = initializePositionToCoordinateMap();
@@ -57,22 +57,12 @@ public class BoardUtils {
         return ImmutableMap.copyOf(positionToCoordinate);
     }
 
-    private static boolean[] initColumn(int columnNumber) {
-        final boolean[] column = new boolean[NUM_TILES];
-        do {
-            column[columnNumber] = true;
-            columnNumber += NUM_TILES_PER_ROW;
-        } while (columnNumber < NUM_TILES);
-        return column;
+    private static BitBoard initColumn(final int columnNumber) {
+        return BitBoard.column(columnNumber);
     }
 
-    private static boolean[] initRow(int rowNumber) {
-        final boolean[] row = new boolean[NUM_TILES];
-        do {
-            row[rowNumber] = true;
-            rowNumber++;
-        } while (rowNumber % NUM_TILES_PER_ROW != 0);
-        return row;
+    private static BitBoard initRow(final int rowNumber) {
+        return BitBoard.row(rowNumber);
     }
 
     public static boolean isValidTileCoordinate(final int coordinate) {
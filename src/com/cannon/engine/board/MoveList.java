@@ -0,0 +1,79 @@
+package com.cannon.engine.board;
+
+import java.util.Collection;
+
+public final class MoveList {
+
+    private final int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(SearchBoard.MAX_MOVES);
+    }
+
+    public MoveList(final int capacity) {
+        this.moves = new int[capacity];
+        this.size = 0;
+    }
+
+    public static MoveList encode(final Collection<Move> moves) {
+        final MoveList moveList = new MoveList(Math.max(moves.size(), 1));
+        for(final Move move : moves) {
+            moveList.add(MoveUtils.encode(move));
+        }
+        return moveList;
+    }
+
+    public void clear() {
+        this.size = 0;
+    }
+
+    public void add(final int move) {
+        this.moves[this.size++] = move;
+    }
+
+    public int get(final int index) {
+        return this.moves[index];
+    }
+
+    public void set(final int index, final int move) {
+        this.moves[index] = move;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public boolean contains(final int move) {
+        for(int i = 0; i < this.size; i++) {
+            if(this.moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int[] getMoves() {
+        return this.moves;
+    }
+
+    void setSize(final int size) {
+        this.size = size;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("[");
+        for(int i = 0; i < this.size; i++) {
+            if(i > 0) {
+                builder.append(", ");
+            }
+            builder.append(MoveUtils.toString(this.moves[i]));
+        }
+        return builder.append("]").toString();
+    }
+}
@@ -0,0 +1,97 @@
+package com.cannon.engine.board;
+
+import com.cannon.engine.pieces.Piece;
+
+import static com.cannon.engine.board.Move.*;
+
+public class MoveUtils {
+
+    public static final int NULL_MOVE = 0;
+
+    public static final int SOLDIER_MOVE = 0;
+    public static final int SOLDIER_ATTACK_MOVE = 1;
+    public static final int SOLDIER_RETREAT_MOVE = 2;
+    public static final int CANNON_SLIDE_MOVE = 3;
+    public static final int CANNON_ATTACK_MOVE = 4;
+    public static final int TOWN_MOVE = 5;
+
+    private static final int SQUARE_MASK = 0x7F;
+    private static final int TO_SHIFT = 7;
+    private static final int KIND_SHIFT = 14;
+    private static final int KIND_MASK = 0x7;
+    private static final int CAPTURE_FLAG = 1 << 17;
+
+    private MoveUtils() {
+        throw new RuntimeException("Not instantiable");
+    }
+
+    public static int create(final int from,
+                             final int to,
+                             final int kind) {
+        final int move = from | (to << TO_SHIFT) | (kind << KIND_SHIFT);
+        return kind == SOLDIER_ATTACK_MOVE || kind == CANNON_ATTACK_MOVE ? move | CAPTURE_FLAG : move;
+    }
+
+    public static int getFrom(final int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int getTo(final int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    public static int getKind(final int move) {
+        return (move >>> KIND_SHIFT) & KIND_MASK;
+    }
+
+    public static boolean isCapture(final int move) {
+        return (move & CAPTURE_FLAG) != 0;
+    }
+
+    public static int encode(final Move move) {
+        final int from = move.getCurrentCoordinate();
+        if(move instanceof TownMove) {
+            return create(from, move.getDestinationCoordinate(), TOWN_MOVE);
+        } else if(move instanceof CannonAttackMove) {
+            return create(from, move.getAttackedPiece().getPiecePosition(), CANNON_ATTACK_MOVE);
+        } else if(move instanceof CannonSlideMove) {
+            return create(from, move.getDestinationCoordinate(), CANNON_SLIDE_MOVE);
+        } else if(move instanceof SoldierRetreatMove) {
+            return create(from, move.getDestinationCoordinate(), SOLDIER_RETREAT_MOVE);
+        } else if(move.isAttack()) {
+            return create(from, move.getDestinationCoordinate(), SOLDIER_ATTACK_MOVE);
+        }
+        return create(from, move.getDestinationCoordinate(), SOLDIER_MOVE);
+    }
+
+    public static Move decode(final Board board,
+                              final int move) {
+        if(move == NULL_MOVE) {
+            return MoveFactory.getNullMove();
+        }
+        final Piece movedPiece = board.getPiece(getFrom(move));
+        final int to = getTo(move);
+        switch (getKind(move)) {
+            case SOLDIER_ATTACK_MOVE:
+                return new SoldierAttackMove(board, movedPiece, to, board.getPiece(to));
+            case SOLDIER_RETREAT_MOVE:
+                return new SoldierRetreatMove(board, movedPiece, to);
+            case CANNON_SLIDE_MOVE:
+                return new CannonSlideMove(board, movedPiece, to);
+            case CANNON_ATTACK_MOVE:
+                return new CannonAttackMove(board, movedPiece, movedPiece.getPiecePosition(), board.getPiece(to));
+            case TOWN_MOVE:
+                return new TownMove(board, movedPiece, to);
+            default:
+                return new SoldierMove(board, movedPiece, to);
+        }
+    }
+
+    public static String toString(final int move) {
+        if(move == NULL_MOVE) {
+            return "Null Move";
+        }
+        final String destination = BoardUtils.getPositionAtCoordinate(getTo(move));
+        return isCapture(move) ? BoardUtils.getPositionAtCoordinate(getFrom(move)).substring(0, 1) + "x" + destination : destination;
+    }
+}
@@ -0,0 +1,924 @@
+package com.cannon.engine.board;
+
+import com.cannon.engine.pieces.Piece.PieceType;
+import com.cannon.engine.player.Alliance;
+import com.cannon.pgn.ZobristHashing;
+
+import java.util.Arrays;
+
+import static com.cannon.engine.board.MoveUtils.*;
+
+public final class SearchBoard {
+
+    public static final int MAX_MOVES = 512;
+
+    private static final int LIGHT = 0;
+    private static final int DARK = 1;
+    private static final Alliance[] ALLIANCES = {Alliance.LIGHT, Alliance.DARK};
+    private static final int[] DIRECTIONS = {1, -1};
+
+    private static final int[] NEIGHBOUR_OFFSETS = {10, 9, 11, 1};
+    private static final int[] SURROUNDING_OFFSETS = {10, 9, 11, 1, -10, -9, -11, -1};
+    private static final int[] TOWN_OFFSETS = {1, 2, 3, 4, 5, 6, 7, 8};
+
+    private static final boolean[][] NEAR_SHOT_WRAP = initWrapTable(new int[][] {
+            {8, 1}, {1, 8}, {7, 0}, {0, 7}, {2, 9}, {9, 2}, {9, 6}, {0, 3}});
+    private static final boolean[][] FAR_SHOT_WRAP = initWrapTable(new int[][] {
+            {8, 2}, {2, 8}, {7, 1}, {1, 7}, {6, 0}, {0, 6}, {9, 3}, {3, 9}, {9, 5}, {0, 4}});
+    private static final boolean[][] SLIDE_WRAP = initWrapTable(new int[][] {
+            {7, 0}, {0, 7}, {2, 9}, {9, 2}, {1, 8}, {8, 1}});
+
+    private static final int RAYS = 2 * NEIGHBOUR_OFFSETS.length;
+    private static final int SLIDES = 0;
+    private static final int NEAR_SHOTS = RAYS;
+    private static final int FAR_SHOTS = 2 * RAYS;
+    private static final long HIGH_MASK = BitBoard.ALL.getHigh();
+    private static final long[] CANNON_MASKS_LOW = new long[3 * RAYS];
+    private static final long[] CANNON_MASKS_HIGH = new long[3 * RAYS];
+    private static final long[] SURROUNDING_LOW = new long[BoardUtils.NUM_TILES];
+    private static final long[] SURROUNDING_HIGH = new long[BoardUtils.NUM_TILES];
+    private static final long[] INFLUENCE_LOW = new long[BoardUtils.NUM_TILES];
+    private static final long[] INFLUENCE_HIGH = new long[BoardUtils.NUM_TILES];
+    private static final int[] NO_MOVES = new int[0];
+    // soldier steps: forward, both forward diagonals and both sideways; sideways steps only capture
+    private static final int[] STEP_DIRECTIONS = {10, 9, 11, 1, -1};
+    private static final boolean[] STEP_ADVANCES = {true, true, true, false, false};
+    private static final long[][] STEP_SOURCES_LOW = new long[2][STEP_DIRECTIONS.length];
+    private static final long[][] STEP_SOURCES_HIGH = new long[2][STEP_DIRECTIONS.length];
+
+    static {
+        for(int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            BitBoard surrounding = BitBoard.EMPTY;
+            for(final int offset : SURROUNDING_OFFSETS) {
+                final int candidate = square + offset;
+                if(isOnBoard(candidate) && Math.abs(column(square) - column(candidate)) <= 1) {
+                    surrounding = surrounding.set(candidate);
+                }
+            }
+            SURROUNDING_LOW[square] = surrounding.getLow();
+            SURROUNDING_HIGH[square] = surrounding.getHigh();
+            BitBoard influence = BitBoard.EMPTY.set(square);
+            for(final int offset : SURROUNDING_OFFSETS) {
+                for(int distance = 1; distance <= 4 && isOnBoard(square + distance * offset); distance++) {
+                    influence = influence.set(square + distance * offset);
+                }
+            }
+            INFLUENCE_LOW[square] = influence.getLow();
+            INFLUENCE_HIGH[square] = influence.getHigh();
+        }
+        for(int ray = 0; ray < RAYS; ray++) {
+            final int step = rayStep(ray);
+            BitBoard slides = BitBoard.EMPTY;
+            BitBoard nearShots = BitBoard.EMPTY;
+            BitBoard farShots = BitBoard.EMPTY;
+            for(int square = 0; square < BoardUtils.NUM_TILES; square++) {
+                final int near = square + 3 * step;
+                final int far = square + 4 * step;
+                if(isOnBoard(near) && !SLIDE_WRAP[column(square)][column(near)]) {
+                    slides = slides.set(square);
+                }
+                if(isOnBoard(near) && !NEAR_SHOT_WRAP[column(square)][column(near)]) {
+                    nearShots = nearShots.set(square);
+                }
+                if(isOnBoard(far) && !FAR_SHOT_WRAP[column(square)][column(far)]) {
+                    farShots = farShots.set(square);
+                }
+            }
+            CANNON_MASKS_LOW[SLIDES + ray] = slides.getLow();
+            CANNON_MASKS_HIGH[SLIDES + ray] = slides.getHigh();
+            CANNON_MASKS_LOW[NEAR_SHOTS + ray] = nearShots.getLow();
+            CANNON_MASKS_HIGH[NEAR_SHOTS + ray] = nearShots.getHigh();
+            CANNON_MASKS_LOW[FAR_SHOTS + ray] = farShots.getLow();
+            CANNON_MASKS_HIGH[FAR_SHOTS + ray] = farShots.getHigh();
+        }
+        for(int side = LIGHT; side <= DARK; side++) {
+            for(int step = 0; step < STEP_DIRECTIONS.length; step++) {
+                final int offset = DIRECTIONS[side] * STEP_DIRECTIONS[step];
+                BitBoard sources = BitBoard.EMPTY;
+                for(int square = 0; square < BoardUtils.NUM_TILES; square++) {
+                    final int destination = square + offset;
+                    if(isOnBoard(destination) && Math.abs(column(square) - column(destination)) <= 1) {
+                        sources = sources.set(square);
+                    }
+                }
+                STEP_SOURCES_LOW[side][step] = sources.getLow();
+                STEP_SOURCES_HIGH[side][step] = sources.getHigh();
+            }
+        }
+    }
+
+    private static final long[][] SOLDIER_KEYS = {ZobristHashing.getSoldierKeys(Alliance.LIGHT),
+                                                  ZobristHashing.getSoldierKeys(Alliance.DARK)};
+    private static final long[][] TOWN_KEYS = {ZobristHashing.getTownKeys(Alliance.LIGHT),
+                                               ZobristHashing.getTownKeys(Alliance.DARK)};
+    private static final long[] TOWN_PLACED_KEYS = {ZobristHashing.getTownPlacedKey(Alliance.LIGHT),
+                                                    ZobristHashing.getTownPlacedKey(Alliance.DARK)};
+    private static final long DARK_MOVE_KEY = ZobristHashing.getDarkMoveKey();
+
+    private static final int CAPTURED_TOWN = 1 << 20;
+    private static final int INITIAL_HISTORY = 256;
+
+    private final long[] soldiersLow;
+    private final long[] soldiersHigh;
+    private final int[] towns;
+    private final boolean[] townPlaced;
+    private int currentSide;
+    private long zobristHash;
+    private int[] history;
+    private int historySize;
+    private int[] scratch;
+    private int[] savedMarks;
+    private int[] savedSquares;
+    private int[][] savedMoves;
+    private int savedSize;
+    private final int[][] pieceMoves;
+    private long cachedLow;
+    private long cachedHigh;
+    private final long[] cannonsLow = new long[3 * RAYS];
+    private final long[] cannonsHigh = new long[3 * RAYS];
+
+    SearchBoard(final BitBoard lightOccupancy,
+                final BitBoard darkOccupancy,
+                final int lightTown,
+                final int darkTown,
+                final boolean lightTownPlaced,
+                final boolean darkTownPlaced,
+                final Alliance currentAlliance) {
+        final BitBoard lightSoldiers = lightTown == -1 ? lightOccupancy : lightOccupancy.clear(lightTown);
+        final BitBoard darkSoldiers = darkTown == -1 ? darkOccupancy : darkOccupancy.clear(darkTown);
+        this.soldiersLow = new long[] {lightSoldiers.getLow(), darkSoldiers.getLow()};
+        this.soldiersHigh = new long[] {lightSoldiers.getHigh(), darkSoldiers.getHigh()};
+        this.towns = new int[] {lightTown, darkTown};
+        this.townPlaced = new boolean[] {lightTownPlaced, darkTownPlaced};
+        this.currentSide = sideOf(currentAlliance);
+        this.pieceMoves = new int[BoardUtils.NUM_TILES][];
+        this.zobristHash = ZobristHashing.calculateHash(this);
+    }
+
+    public SearchBoard(final SearchBoard other) {
+        this.soldiersLow = other.soldiersLow.clone();
+        this.soldiersHigh = other.soldiersHigh.clone();
+        this.towns = other.towns.clone();
+        this.townPlaced = other.townPlaced.clone();
+        this.currentSide = other.currentSide;
+        this.zobristHash = other.zobristHash;
+        this.history = other.history != null ? other.history.clone() : null;
+        this.historySize = other.historySize;
+        this.savedMarks = other.savedMarks != null ? other.savedMarks.clone() : null;
+        this.savedSquares = other.savedSquares != null ? other.savedSquares.clone() : null;
+        this.savedMoves = other.savedMoves != null ? other.savedMoves.clone() : null;
+        this.savedSize = other.savedSize;
+        this.pieceMoves = other.pieceMoves.clone();
+        this.cachedLow = other.cachedLow;
+        this.cachedHigh = other.cachedHigh;
+    }
+
+    private SearchBoard(final SearchBoard parent, final int move) {
+        this.soldiersLow = parent.soldiersLow.clone();
+        this.soldiersHigh = parent.soldiersHigh.clone();
+        this.towns = parent.towns.clone();
+        this.townPlaced = parent.townPlaced.clone();
+        this.currentSide = parent.currentSide;
+        this.zobristHash = parent.zobristHash;
+        this.pieceMoves = parent.pieceMoves.clone();
+        this.cachedLow = parent.cachedLow;
+        this.cachedHigh = parent.cachedHigh;
+        final boolean soldiersActive = isSoldiersActive();
+        applyMove(move);
+        invalidateMoves(move, soldiersActive != isSoldiersActive(), false);
+    }
+
+    SearchBoard createChild(final int move) {
+        return new SearchBoard(this, move);
+    }
+
+    private static boolean[][] initWrapTable(final int[][] columnPairs) {
+        final boolean[][] table = new boolean[BoardUtils.NUM_TILES_PER_ROW][BoardUtils.NUM_TILES_PER_ROW];
+        for(final int[] pair : columnPairs) {
+            table[pair[0]][pair[1]] = true;
+        }
+        return table;
+    }
+
+    private static int rayStep(final int ray) {
+        return (ray & 1) == 0 ? NEIGHBOUR_OFFSETS[ray >> 1] : -NEIGHBOUR_OFFSETS[ray >> 1];
+    }
+
+    private static long lowAt(final long low, final long high, final int offset) {
+        return offset >= 0 ? (low >>> offset) | (high << (64 - offset)) : low << -offset;
+    }
+
+    private static long highAt(final long low, final long high, final int offset) {
+        return offset >= 0 ? high >>> offset : ((high << -offset) | (low >>> (64 + offset))) & HIGH_MASK;
+    }
+
+    private static int sideOf(final Alliance alliance) {
+        return alliance.isLight() ? LIGHT : DARK;
+    }
+
+    private static boolean isOnBoard(final int square) {
+        return square >= 0 && square < BoardUtils.NUM_TILES;
+    }
+
+    private static int column(final int square) {
+        return square % BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    public Alliance getCurrentAlliance() {
+        return ALLIANCES[this.currentSide];
+    }
+
+    public long getZobristHash() {
+        return this.zobristHash;
+    }
+
+    public int getPly() {
+        return this.historySize;
+    }
+
+    public int getLastMove(final int pliesAgo) {
+        final int index = this.historySize - 1 - pliesAgo;
+        return index >= 0 ? this.history[index] & ~CAPTURED_TOWN : NULL_MOVE;
+    }
+
+    public boolean isOccupied(final int square) {
+        return isSoldier(LIGHT, square) || isSoldier(DARK, square) ||
+               this.towns[LIGHT] == square || this.towns[DARK] == square;
+    }
+
+    public boolean isOccupiedBy(final Alliance alliance, final int square) {
+        final int side = sideOf(alliance);
+        return isSoldier(side, square) || this.towns[side] == square;
+    }
+
+    public boolean isSoldier(final Alliance alliance, final int square) {
+        return isSoldier(sideOf(alliance), square);
+    }
+
+    private boolean isSoldier(final int side, final int square) {
+        return BitBoard.isSet(this.soldiersLow[side], this.soldiersHigh[side], square);
+    }
+
+    private boolean isPiece(final int side, final int square) {
+        return isSoldier(side, square) || this.towns[side] == square;
+    }
+
+    public int getTownPosition(final Alliance alliance) {
+        return this.towns[sideOf(alliance)];
+    }
+
+    public boolean isTownPlaced(final Alliance alliance) {
+        return this.townPlaced[sideOf(alliance)];
+    }
+
+    public int getSoldierCount(final Alliance alliance) {
+        final int side = sideOf(alliance);
+        return Long.bitCount(this.soldiersLow[side]) + Long.bitCount(this.soldiersHigh[side]);
+    }
+
+    public int getPieceValue(final Alliance alliance) {
+        return getSoldierCount(alliance) * PieceType.SOLDIER.getPieceValue() +
+               (getTownPosition(alliance) != -1 ? PieceType.TOWN.getPieceValue() : 0);
+    }
+
+    public void makeMove(final int move) {
+        final boolean soldiersActive = isSoldiersActive();
+        final int undo = applyMove(move);
+        pushHistory(undo);
+        invalidateMoves(move, soldiersActive != isSoldiersActive(), true);
+    }
+
+    /*
+     * Passes the turn without moving a piece. The cached piece moves do not depend on the side to move,
+     * so nothing needs to be invalidated; unmakeMove takes the pass back like any other move.
+     */
+    public void makeNullMove() {
+        pushHistory(NULL_MOVE);
+        switchSide();
+    }
+
+    private void pushHistory(final int undo) {
+        if(this.history == null) {
+            this.history = new int[INITIAL_HISTORY];
+            this.savedMarks = new int[INITIAL_HISTORY];
+            this.savedSquares = new int[INITIAL_HISTORY];
+            this.savedMoves = new int[INITIAL_HISTORY][];
+        } else if(this.historySize == this.history.length) {
+            this.history = Arrays.copyOf(this.history, this.history.length * 2);
+            this.savedMarks = Arrays.copyOf(this.savedMarks, this.savedMarks.length * 2);
+        }
+        this.savedMarks[this.historySize] = this.savedSize;
+        this.history[this.historySize++] = undo;
+    }
+
+    private int applyMove(final int move) {
+        final int side = this.currentSide;
+        final int enemy = side ^ 1;
+        final int from = getFrom(move);
+        final int to = getTo(move);
+        int undo = move;
+        switch (getKind(move)) {
+            case TOWN_MOVE:
+                moveTown(side, from, to);
+                setTownPlaced(side, true);
+                break;
+            case CANNON_ATTACK_MOVE:
+                undo |= removePiece(enemy, to);
+                break;
+            case SOLDIER_ATTACK_MOVE:
+                undo |= removePiece(enemy, to);
+                moveSoldier(side, from, to);
+                break;
+            default:
+                moveSoldier(side, from, to);
+        }
+        switchSide();
+        return undo;
+    }
+
+    public void unmakeMove() {
+        final boolean soldiersActive = isSoldiersActive();
+        final int undo = this.history[--this.historySize];
+        if(undo == NULL_MOVE) {
+            switchSide();
+            return;
+        }
+        final int side = this.currentSide ^ 1;
+        final int enemy = this.currentSide;
+        final int from = getFrom(undo);
+        final int to = getTo(undo);
+        switch (getKind(undo)) {
+            case TOWN_MOVE:
+                moveTown(side, to, from);
+                setTownPlaced(side, false);
+                break;
+            case CANNON_ATTACK_MOVE:
+                restorePiece(enemy, to, undo);
+                break;
+            case SOLDIER_ATTACK_MOVE:
+                moveSoldier(side, to, from);
+                restorePiece(enemy, to, undo);
+                break;
+            default:
+                moveSoldier(side, to, from);
+        }
+        switchSide();
+        invalidateMoves(undo, soldiersActive != isSoldiersActive(), false);
+        final int mark = this.savedMarks[this.historySize];
+        while(this.savedSize > mark) {
+            final int square = this.savedSquares[--this.savedSize];
+            this.pieceMoves[square] = this.savedMoves[this.savedSize];
+            this.savedMoves[this.savedSize] = null;
+            if(square < 64) {
+                this.cachedLow |= 1L << square;
+            } else {
+                this.cachedHigh |= 1L << (square - 64);
+            }
+        }
+    }
+
+    private boolean isSoldiersActive() {
+        return this.townPlaced[LIGHT] && this.townPlaced[DARK];
+    }
+
+    private void invalidateMoves(final int move, final boolean everything, final boolean save) {
+        final int to = getTo(move);
+        long low;
+        long high;
+        if(everything) {
+            low = BitBoard.ALL.getLow();
+            high = BitBoard.ALL.getHigh();
+        } else {
+            low = INFLUENCE_LOW[to];
+            high = INFLUENCE_HIGH[to];
+            if(getKind(move) != CANNON_ATTACK_MOVE) {
+                low |= INFLUENCE_LOW[getFrom(move)];
+                high |= INFLUENCE_HIGH[getFrom(move)];
+            }
+        }
+        low &= this.cachedLow;
+        high &= this.cachedHigh;
+        this.cachedLow &= ~low;
+        this.cachedHigh &= ~high;
+        while(low != 0L) {
+            invalidateMoves(Long.numberOfTrailingZeros(low), save);
+            low &= low - 1;
+        }
+        while(high != 0L) {
+            invalidateMoves(64 + Long.numberOfTrailingZeros(high), save);
+            high &= high - 1;
+        }
+    }
+
+    private void invalidateMoves(final int square, final boolean save) {
+        if(save) {
+            if(this.savedSize == this.savedSquares.length) {
+                this.savedSquares = Arrays.copyOf(this.savedSquares, this.savedSize * 2);
+                this.savedMoves = Arrays.copyOf(this.savedMoves, this.savedSize * 2);
+            }
+            this.savedSquares[this.savedSize] = square;
+            this.savedMoves[this.savedSize++] = this.pieceMoves[square];
+        }
+        this.pieceMoves[square] = null;
+    }
+
+    private void switchSide() {
+        this.currentSide ^= 1;
+        this.zobristHash ^= DARK_MOVE_KEY;
+    }
+
+    private void moveTown(final int side, final int from, final int to) {
+        if(from != -1) {
+            this.zobristHash ^= TOWN_KEYS[side][from];
+        }
+        if(to != -1) {
+            this.zobristHash ^= TOWN_KEYS[side][to];
+        }
+        this.towns[side] = to;
+    }
+
+    private void setTownPlaced(final int side, final boolean placed) {
+        if(this.townPlaced[side] != placed) {
+            this.zobristHash ^= TOWN_PLACED_KEYS[side];
+            this.townPlaced[side] = placed;
+        }
+    }
+
+    private void moveSoldier(final int side, final int from, final int to) {
+        toggleSoldier(side, from);
+        toggleSoldier(side, to);
+    }
+
+    private void toggleSoldier(final int side, final int square) {
+        this.zobristHash ^= SOLDIER_KEYS[side][square];
+        if(square < 64) {
+            this.soldiersLow[side] ^= 1L << square;
+        } else {
+            this.soldiersHigh[side] ^= 1L << (square - 64);
+        }
+    }
+
+    private int removePiece(final int side, final int square) {
+        if(this.towns[side] == square) {
+            moveTown(side, square, -1);
+            return CAPTURED_TOWN;
+        }
+        toggleSoldier(side, square);
+        return 0;
+    }
+
+    private void restorePiece(final int side, final int square, final int undo) {
+        if((undo & CAPTURED_TOWN) != 0) {
+            moveTown(side, -1, square);
+        } else {
+            toggleSoldier(side, square);
+        }
+    }
+
+    public int generateMoves(final int[] moves, final int start) {
+        return generateMoves(this.currentSide, moves, start);
+    }
+
+    public void generateMoves(final MoveList moveList) {
+        moveList.setSize(generateMoves(this.currentSide, moveList.getMoves(), 0));
+    }
+
+    public int generateMoves(final Alliance alliance, final int[] moves, final int start) {
+        return generateMoves(sideOf(alliance), moves, start);
+    }
+
+    private int generateMoves(final int side, final int[] moves, final int start) {
+        refreshMoves(side);
+        int count = start;
+        long low = pieceLow(side);
+        long high = pieceHigh(side);
+        while(low != 0L) {
+            count = copyMoves(Long.numberOfTrailingZeros(low), moves, count);
+            low &= low - 1;
+        }
+        while(high != 0L) {
+            count = copyMoves(64 + Long.numberOfTrailingZeros(high), moves, count);
+            high &= high - 1;
+        }
+        return count;
+    }
+
+    /*
+     * Generates the moves of the side to move straight into the array, bypassing the per-piece cache. Nothing
+     * is allocated, which suits random playouts that see each position once; the cache is left untouched.
+     */
+    public int generateUncachedMoves(final int[] moves, final int start) {
+        final int side = this.currentSide;
+        calculateCannons(side);
+        final int town = this.towns[side];
+        int count = start;
+        if(town != -1 && !this.townPlaced[side]) {
+            count = generateTownMoves(side, town, moves, count);
+        }
+        if(!isSoldiersActive()) {
+            return count;
+        }
+        // steps and cannon moves are generated set-wise for all soldiers at once, only retreats go per soldier
+        count = generateSteps(side, moves, count);
+        long low = this.soldiersLow[side];
+        long high = this.soldiersHigh[side];
+        while(low != 0L) {
+            count = generateRetreats(side, Long.numberOfTrailingZeros(low), moves, count);
+            low &= low - 1;
+        }
+        while(high != 0L) {
+            count = generateRetreats(side, 64 + Long.numberOfTrailingZeros(high), moves, count);
+            high &= high - 1;
+        }
+        for(int ray = 0; ray < RAYS; ray++) {
+            count = generateCannonMoves(SLIDES + ray, 3 * rayStep(ray), CANNON_SLIDE_MOVE, moves, count);
+            count = generateCannonMoves(NEAR_SHOTS + ray, 3 * rayStep(ray), CANNON_ATTACK_MOVE, moves, count);
+            count = generateCannonMoves(FAR_SHOTS + ray, 4 * rayStep(ray), CANNON_ATTACK_MOVE, moves, count);
+        }
+        return count;
+    }
+
+    private int generateSteps(final int side, final int[] moves, int count) {
+        final int enemy = side ^ 1;
+        final long ownLow = this.soldiersLow[side];
+        final long ownHigh = this.soldiersHigh[side];
+        final long enemyLow = pieceLow(enemy);
+        final long enemyHigh = pieceHigh(enemy);
+        final long emptyLow = ~(pieceLow(side) | enemyLow);
+        final long emptyHigh = ~(pieceHigh(side) | enemyHigh) & HIGH_MASK;
+        for(int step = 0; step < STEP_DIRECTIONS.length; step++) {
+            final int offset = DIRECTIONS[side] * STEP_DIRECTIONS[step];
+            final long sourcesLow = ownLow & STEP_SOURCES_LOW[side][step];
+            final long sourcesHigh = ownHigh & STEP_SOURCES_HIGH[side][step];
+            count = generateSetMoves(sourcesLow & lowAt(enemyLow, enemyHigh, offset),
+                                     sourcesHigh & highAt(enemyLow, enemyHigh, offset),
+                                     offset, SOLDIER_ATTACK_MOVE, moves, count);
+            if(STEP_ADVANCES[step]) {
+                count = generateSetMoves(sourcesLow & lowAt(emptyLow, emptyHigh, offset),
+                                         sourcesHigh & highAt(emptyLow, emptyHigh, offset),
+                                         offset, SOLDIER_MOVE, moves, count);
+            }
+        }
+        return count;
+    }
+
+    private int generateCannonMoves(final int set, final int offset, final int kind, final int[] moves, final int count) {
+        return generateSetMoves(this.cannonsLow[set], this.cannonsHigh[set], offset, kind, moves, count);
+    }
+
+    /*
+     * One move per square in the set, from that square to the square offset away from it.
+     */
+    private static int generateSetMoves(long low, long high, final int offset, final int kind, final int[] moves, int count) {
+        while(low != 0L) {
+            final int square = Long.numberOfTrailingZeros(low);
+            moves[count++] = create(square, square + offset, kind);
+            low &= low - 1;
+        }
+        while(high != 0L) {
+            final int square = 64 + Long.numberOfTrailingZeros(high);
+            moves[count++] = create(square, square + offset, kind);
+            high &= high - 1;
+        }
+        return count;
+    }
+
+    private int copyMoves(final int square, final int[] moves, final int count) {
+        final int[] cached = this.pieceMoves[square];
+        System.arraycopy(cached, 0, moves, count, cached.length);
+        return count + cached.length;
+    }
+
+    private long pieceLow(final int side) {
+        final int town = this.towns[side];
+        return town != -1 && town < 64 ? this.soldiersLow[side] | (1L << town) : this.soldiersLow[side];
+    }
+
+    private long pieceHigh(final int side) {
+        final int town = this.towns[side];
+        return town >= 64 ? this.soldiersHigh[side] | (1L << (town - 64)) : this.soldiersHigh[side];
+    }
+
+    private void refreshMoves(final int side) {
+        long low = pieceLow(side) & ~this.cachedLow;
+        long high = pieceHigh(side) & ~this.cachedHigh;
+        if(low == 0L && high == 0L) {
+            return;
+        }
+        if(this.scratch == null) {
+            this.scratch = new int[MAX_MOVES];
+        }
+        this.cachedLow |= low;
+        this.cachedHigh |= high;
+        calculateCannons(side);
+        final int town = this.towns[side];
+        final boolean soldiersActive = isSoldiersActive();
+        while(low != 0L) {
+            refreshMoves(side, Long.numberOfTrailingZeros(low), town, soldiersActive);
+            low &= low - 1;
+        }
+        while(high != 0L) {
+            refreshMoves(side, 64 + Long.numberOfTrailingZeros(high), town, soldiersActive);
+            high &= high - 1;
+        }
+    }
+
+    private void refreshMoves(final int side, final int square, final int town, final boolean soldiersActive) {
+        final int count = generatePieceMoves(side, square, town, soldiersActive, this.scratch, 0);
+        this.pieceMoves[square] = count == 0 ? NO_MOVES : Arrays.copyOf(this.scratch, count);
+    }
+
+    public int generatePieceMoves(final int square, final int[] moves, final int start) {
+        final int side = isPiece(LIGHT, square) ? LIGHT : isPiece(DARK, square) ? DARK : -1;
+        if(side == -1) {
+            return start;
+        }
+        refreshMoves(side);
+        return copyMoves(square, moves, start);
+    }
+
+    private void calculateCannons(final int side) {
+        final int enemy = side ^ 1;
+        final long ownLow = this.soldiersLow[side];
+        final long ownHigh = this.soldiersHigh[side];
+        long enemyLow = this.soldiersLow[enemy];
+        long enemyHigh = this.soldiersHigh[enemy];
+        long blockedLow = ownLow | enemyLow;
+        long blockedHigh = ownHigh | enemyHigh;
+        for(final int town : this.towns) {
+            if(town != -1 && town < 64) {
+                blockedLow |= 1L << town;
+            } else if(town != -1) {
+                blockedHigh |= 1L << (town - 64);
+            }
+        }
+        final int enemyTown = this.towns[enemy];
+        if(enemyTown != -1 && enemyTown < 64) {
+            enemyLow |= 1L << enemyTown;
+        } else if(enemyTown != -1) {
+            enemyHigh |= 1L << (enemyTown - 64);
+        }
+        final long emptyLow = ~blockedLow;
+        final long emptyHigh = ~blockedHigh & HIGH_MASK;
+        for(int axis = 0; axis < NEIGHBOUR_OFFSETS.length; axis++) {
+            // lines of three soldiers starting at a square, reused for both rays of the axis
+            final int offset = NEIGHBOUR_OFFSETS[axis];
+            final long pairLow = ownLow & lowAt(ownLow, ownHigh, offset);
+            final long pairHigh = ownHigh & highAt(ownLow, ownHigh, offset);
+            final long forwardLow = pairLow & lowAt(pairLow, pairHigh, offset);
+            final long forwardHigh = pairHigh & highAt(pairLow, pairHigh, offset);
+            final long centreLow = lowAt(forwardLow, forwardHigh, -offset);
+            final long centreHigh = highAt(forwardLow, forwardHigh, -offset);
+            for(int ray = 2 * axis; ray < 2 * axis + 2; ray++) {
+                final int step = rayStep(ray);
+                final long lineLow = step > 0 ? forwardLow : lowAt(forwardLow, forwardHigh, 2 * step);
+                final long lineHigh = step > 0 ? forwardHigh : highAt(forwardLow, forwardHigh, 2 * step);
+                final long thirdEmptyLow = lowAt(emptyLow, emptyHigh, 3 * step);
+                final long thirdEmptyHigh = highAt(emptyLow, emptyHigh, 3 * step);
+                this.cannonsLow[SLIDES + ray] = lineLow & thirdEmptyLow & CANNON_MASKS_LOW[SLIDES + ray];
+                this.cannonsHigh[SLIDES + ray] = lineHigh & thirdEmptyHigh & CANNON_MASKS_HIGH[SLIDES + ray];
+                final long middleLow = centreLow & lowAt(emptyLow, emptyHigh, 2 * step);
+                final long middleHigh = centreHigh & highAt(emptyLow, emptyHigh, 2 * step);
+                this.cannonsLow[NEAR_SHOTS + ray] = middleLow & lowAt(enemyLow, enemyHigh, 3 * step) &
+                                                    CANNON_MASKS_LOW[NEAR_SHOTS + ray];
+                this.cannonsHigh[NEAR_SHOTS + ray] = middleHigh & highAt(enemyLow, enemyHigh, 3 * step) &
+                                                     CANNON_MASKS_HIGH[NEAR_SHOTS + ray];
+                this.cannonsLow[FAR_SHOTS + ray] = middleLow & thirdEmptyLow & lowAt(enemyLow, enemyHigh, 4 * step) &
+                                                   CANNON_MASKS_LOW[FAR_SHOTS + ray];
+                this.cannonsHigh[FAR_SHOTS + ray] = middleHigh & thirdEmptyHigh & highAt(enemyLow, enemyHigh, 4 * step) &
+                                                    CANNON_MASKS_HIGH[FAR_SHOTS + ray];
+            }
+        }
+    }
+
+    private boolean isCannon(final int kind, final int ray, final int square) {
+        return BitBoard.isSet(this.cannonsLow[kind + ray], this.cannonsHigh[kind + ray], square);
+    }
+
+    private int generatePieceMoves(final int side,
+                                   final int square,
+                                   final int town,
+                                   final boolean soldiersActive,
+                                   final int[] moves,
+                                   final int start) {
+        if(square == town) {
+            return this.townPlaced[side] ? start : generateTownMoves(side, square, moves, start);
+        }
+        return soldiersActive ? generateSoldierMoves(side, square, moves, start) : start;
+    }
+
+    private static int generateTownMoves(final int side, final int square, final int[] moves, int count) {
+        for(final int offset : TOWN_OFFSETS) {
+            moves[count++] = create(square, square + DIRECTIONS[side] * offset, TOWN_MOVE);
+        }
+        return count;
+    }
+
+    private int generateSoldierMoves(final int side, final int square, final int[] moves, int count) {
+        final int forward = side == LIGHT ? 0 : 1;
+        for(int axis = 0; axis < NEIGHBOUR_OFFSETS.length; axis++) {
+            final int up = 2 * axis + forward;
+            final int down = up ^ 1;
+            count = generateCannonShot(square, up, moves, count);
+            count = generateCannonShot(square, down, moves, count);
+            if(isCannon(SLIDES, up, square)) {
+                moves[count++] = create(square, square + 3 * rayStep(up), CANNON_SLIDE_MOVE);
+            }
+            if(isCannon(SLIDES, down, square)) {
+                moves[count++] = create(square, square + 3 * rayStep(down), CANNON_SLIDE_MOVE);
+            }
+        }
+        final int direction = DIRECTIONS[side];
+        final int enemy = side ^ 1;
+        final int column = column(square);
+
+        final boolean light = side == LIGHT;
+        final boolean firstColumn = column == 0;
+        final boolean tenthColumn = column == 9;
+        count = generateStep(enemy, square, square + direction * 10, true, moves, count);
+        if(!((tenthColumn && !light) || (firstColumn && light))) {
+            count = generateStep(enemy, square, square + direction * 9, true, moves, count);
+        }
+        if(!((tenthColumn && light) || (firstColumn && !light))) {
+            count = generateStep(enemy, square, square + direction * 11, true, moves, count);
+            count = generateStep(enemy, square, square + direction, false, moves, count);
+        }
+        if(!((tenthColumn && !light) || (firstColumn && light))) {
+            count = generateStep(enemy, square, square - direction, false, moves, count);
+        }
+        return generateRetreats(side, square, moves, count);
+    }
+
+    private int generateRetreats(final int side, final int square, final int[] moves, int count) {
+        final int enemy = side ^ 1;
+        final boolean underAttack = (this.soldiersLow[enemy] & SURROUNDING_LOW[square]) != 0L ||
+                                    (this.soldiersHigh[enemy] & SURROUNDING_HIGH[square]) != 0L;
+        if(underAttack) {
+            final int direction = DIRECTIONS[side];
+            final int column = column(square);
+            final boolean light = side == LIGHT;
+            final boolean rightEdge = column >= 8;
+            final boolean leftEdge = column <= 1;
+            if(!((rightEdge && light) || (leftEdge && !light))) {
+                count = generateRetreat(square, -10 * direction, moves, count);
+                count = generateRetreat(square, -9 * direction, moves, count);
+            }
+            if(!((rightEdge && !light) || (leftEdge && light))) {
+                count = generateRetreat(square, -11 * direction, moves, count);
+            }
+        }
+        return count;
+    }
+
+    private int generateCannonShot(final int square, final int ray, final int[] moves, int count) {
+        if(isCannon(NEAR_SHOTS, ray, square)) {
+            moves[count++] = create(square, square + 3 * rayStep(ray), CANNON_ATTACK_MOVE);
+        } else if(isCannon(FAR_SHOTS, ray, square)) {
+            moves[count++] = create(square, square + 4 * rayStep(ray), CANNON_ATTACK_MOVE);
+        }
+        return count;
+    }
+
+    private int generateStep(final int enemy,
+                             final int square,
+                             final int destination,
+                             final boolean canAdvance,
+                             final int[] moves,
+                             int count) {
+        if(!isOnBoard(destination)) {
+            return count;
+        }
+        if(isPiece(enemy, destination)) {
+            moves[count++] = create(square, destination, SOLDIER_ATTACK_MOVE);
+        } else if(canAdvance && !isOccupied(destination)) {
+            moves[count++] = create(square, destination, SOLDIER_MOVE);
+        }
+        return count;
+    }
+
+    private int generateRetreat(final int square, final int offset, final int[] moves, int count) {
+        final int destination = square + 2 * offset;
+        if(isOnBoard(destination) && !isOccupied(square + offset) && !isOccupied(destination)) {
+            moves[count++] = create(square, destination, SOLDIER_RETREAT_MOVE);
+        }
+        return count;
+    }
+
+    public int countMoves(final Alliance alliance) {
+        final int side = sideOf(alliance);
+        refreshMoves(side);
+        int count = 0;
+        long low = pieceLow(side);
+        long high = pieceHigh(side);
+        while(low != 0L) {
+            count += this.pieceMoves[Long.numberOfTrailingZeros(low)].length;
+            low &= low - 1;
+        }
+        while(high != 0L) {
+            count += this.pieceMoves[64 + Long.numberOfTrailingZeros(high)].length;
+            high &= high - 1;
+        }
+        return count;
+    }
+
+    public boolean isInCheck(final Alliance alliance) {
+        final int side = sideOf(alliance);
+        final int town = this.towns[side];
+        if(town == -1) {
+            return true;
+        }
+        if(!(this.townPlaced[LIGHT] && this.townPlaced[DARK])) {
+            return false;
+        }
+        final int attacker = findStepAttacker(side ^ 1, town);
+        return attacker != -1 && findStepAttacker(side, attacker) == -1;
+    }
+
+    /*
+     * Whether playing the move would leave the side to move in check, decided on the soldier sets the move
+     * would produce instead of making it. Matches isInCheck of the mover after makeMove.
+     */
+    public boolean leavesInCheck(final int move) {
+        final int side = this.currentSide;
+        final int enemy = side ^ 1;
+        final int kind = getKind(move);
+        final int town = kind == TOWN_MOVE ? getTo(move) : this.towns[side];
+        if(town == -1) {
+            return true;
+        }
+        if(!((this.townPlaced[side] || kind == TOWN_MOVE) && this.townPlaced[enemy])) {
+            return false;
+        }
+        long ownLow = this.soldiersLow[side];
+        long ownHigh = this.soldiersHigh[side];
+        long enemyLow = this.soldiersLow[enemy];
+        long enemyHigh = this.soldiersHigh[enemy];
+        final int from = getFrom(move);
+        final int to = getTo(move);
+        if(kind == SOLDIER_ATTACK_MOVE || kind == CANNON_ATTACK_MOVE) {
+            // a captured town is not a soldier, clearing its square changes nothing
+            if(to < 64) {
+                enemyLow &= ~(1L << to);
+            } else {
+                enemyHigh &= ~(1L << (to - 64));
+            }
+        }
+        if(kind != TOWN_MOVE && kind != CANNON_ATTACK_MOVE) {
+            if(from < 64) {
+                ownLow ^= 1L << from;
+            } else {
+                ownHigh ^= 1L << (from - 64);
+            }
+            if(to < 64) {
+                ownLow ^= 1L << to;
+            } else {
+                ownHigh ^= 1L << (to - 64);
+            }
+        }
+        final int attacker = findStepAttacker(enemy, enemyLow, enemyHigh, town);
+        return attacker != -1 && findStepAttacker(side, ownLow, ownHigh, attacker) == -1;
+    }
+
+    private int findStepAttacker(final int side, final int target) {
+        return findStepAttacker(side, this.soldiersLow[side], this.soldiersHigh[side], target);
+    }
+
+    private static int findStepAttacker(final int side, final long low, final long high, final int target) {
+        final int direction = DIRECTIONS[side];
+        final boolean light = side == LIGHT;
+        int attacker = stepAttacker(low, high, target - direction * 10, -1);
+        attacker = Math.max(attacker, stepAttacker(low, high, target - direction * 9, light ? 0 : 9));
+        attacker = Math.max(attacker, stepAttacker(low, high, target - direction * 11, light ? 9 : 0));
+        attacker = Math.max(attacker, stepAttacker(low, high, target - direction, light ? 9 : 0));
+        attacker = Math.max(attacker, stepAttacker(low, high, target + direction, light ? 0 : 9));
+        return attacker;
+    }
+
+    private static int stepAttacker(final long low, final long high, final int candidate, final int blockedColumn) {
+        return isOnBoard(candidate) && column(candidate) != blockedColumn && BitBoard.isSet(low, high, candidate) ? candidate : -1;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final String tileText;
+            if(this.towns[LIGHT] == i) {
+                tileText = "t";
+            } else if(this.towns[DARK] == i) {
+                tileText = "T";
+            } else if(isSoldier(LIGHT, i)) {
+                tileText = "s";
+            } else if(isSoldier(DARK, i)) {
+                tileText = "S";
+            } else {
+                tileText = "-";
+            }
+            builder.append(String.format("%3s", tileText));
+            if((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
+                builder.append("\n");
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -60,11 +60,6 @@ public class Town extends Piece {
 
     @Override
     public Town movePiece(Move move) {
-        if(move.getMovedPiece().getPieceAlliance().isDark()) {
-            townPlacedDark = true;
-        } else if(move.getMovedPiece().getPieceAlliance().isLight()) {
-            townPlacedLight = true;
-        }
         return new Town(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance(), false);
     }
 
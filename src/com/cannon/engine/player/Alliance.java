@@ -21,6 +21,11 @@ public enum Alliance {
             return false;
         }
 
+        @Override
+        public Alliance getOpponent() {
+            return DARK;
+        }
+
         @Override
         public Player choosePlayer(final LightPlayer lightPlayer, final DarkPlayer darkPlayer) {
             return lightPlayer;
@@ -42,6 +47,11 @@ public enum Alliance {
             return true;
         }
 
+        @Override
+        public Alliance getOpponent() {
+            return LIGHT;
+        }
+
         @Override
         public Player choosePlayer(final LightPlayer lightPlayer, final DarkPlayer darkPlayer) {
             return darkPlayer;
@@ -51,6 +61,7 @@ public enum Alliance {
     public abstract int getDirection();
     public abstract boolean isLight();
     public abstract boolean isDark();
+    public abstract Alliance getOpponent();
 
     public abstract Player choosePlayer(LightPlayer lightPlayer, DarkPlayer darkPlayer);
 }
@@ -0,0 +1,48 @@
+package com.cannon.engine.player;
+
+public class GameClock {
+
+    private final long[] remainingMillis;
+    private final long incrementMillis;
+    private Alliance running;
+    private long runningSince;
+
+    public GameClock(final long initialMillis,
+                     final long incrementMillis) {
+        this.remainingMillis = new long[] {initialMillis, initialMillis};
+        this.incrementMillis = incrementMillis;
+    }
+
+    public synchronized void start(final Alliance alliance) {
+        stop();
+        this.running = alliance;
+        this.runningSince = System.currentTimeMillis();
+    }
+
+    public synchronized void stop() {
+        if(this.running != null) {
+            final int side = index(this.running);
+            final long remaining = this.remainingMillis[side] - (System.currentTimeMillis() - this.runningSince);
+            // a flag that has already fallen is not lifted again by the increment
+            this.remainingMillis[side] = remaining > 0 ? remaining + this.incrementMillis : remaining;
+            this.running = null;
+        }
+    }
+
+    public synchronized long getRemainingMillis(final Alliance alliance) {
+        final long remaining = this.remainingMillis[index(alliance)];
+        return alliance == this.running ? remaining - (System.currentTimeMillis() - this.runningSince) : remaining;
+    }
+
+    public long getIncrementMillis() {
+        return this.incrementMillis;
+    }
+
+    public boolean isFlagged(final Alliance alliance) {
+        return getRemainingMillis(alliance) <= 0;
+    }
+
+    private static int index(final Alliance alliance) {
+        return alliance.isLight() ? 0 : 1;
+    }
+}
@@ -1,16 +1,13 @@
 package com.cannon.engine.player;
 
 import com.cannon.engine.board.Board;
-import com.cannon.engine.board.Move;
 import com.cannon.engine.pieces.Piece;
 
 import java.util.Collection;
 
 public class LightPlayer extends Player {
-    public LightPlayer(final Board board,
-                       final Collection<Move> lightStandardLegalMoves,
-                       final Collection<Move> darkStandardLegalMoves) {
-        super(board, lightStandardLegalMoves, darkStandardLegalMoves);
+    public LightPlayer(final Board board) {
+        super(board);
     }
 
     @Override
@@ -3,40 +3,28 @@ package com.cannon.engine.player;
 import com.cannon.engine.board.Board;
 import com.cannon.engine.board.Move;
 import com.cannon.engine.pieces.Piece;
-import com.cannon.engine.pieces.Town;
 import com.cannon.engine.AI.support.MoveStrategy;
-import com.google.common.collect.ImmutableList;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 public abstract class Player {
 
     protected final Board board;
-    protected final int playerTown;
-    protected final Collection<Move> legalMoves;
+    private Collection<Move> legalMoves;
     private MoveStrategy strategy;
-    protected final boolean isInCheck;
-    private static int positionToCheck;
-    protected final boolean noRebound;
-    private int townPosition;
 
-    Player(final Board board,
-           final Collection<Move> legalMoves,
-           final Collection<Move> opponentMoves) {
+    Player(final Board board) {
         this.board = board;
-        this.playerTown = establishTown();
-        this.legalMoves = legalMoves;
-        this.isInCheck = !Player.calculateAttackOnTown(this.playerTown, opponentMoves).isEmpty();
-        this.noRebound = Player.calculateCheckRebound(positionToCheck, legalMoves).isEmpty();
     }
 
     public boolean isInCheck() {
-        return (this.isInCheck && this.noRebound);
+        return this.board.isInCheck(getAlliance());
     }
 
-    public Collection<Move> getLegalMoves() {
+    public synchronized Collection<Move> getLegalMoves() {
+        if(this.legalMoves == null) {
+            this.legalMoves = this.board.calculateLegalMoves(getAlliance());
+        }
         return this.legalMoves;
     }
 
@@ -48,38 +36,8 @@ public abstract class Player {
         return this.strategy;
     }
 
-    private static Collection<Move> calculateAttackOnTown(int piecePosition, Collection<Move> moves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        for(final Move move : moves) {
-            if(piecePosition == move.getDestinationCoordinate()) {
-                positionToCheck = move.getCurrentCoordinate();
-                attackMoves.add(move);
-            }
-        }
-        return ImmutableList.copyOf(attackMoves);
-    }
-
-    private static Collection<Move> calculateCheckRebound(int piecePosition, Collection<Move> moves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        for(final Move move : moves) {
-            if(piecePosition == move.getDestinationCoordinate()) {
-                attackMoves.add(move);
-            }
-        }
-        return ImmutableList.copyOf(attackMoves);
-    }
-
-    private int establishTown() {
-        for(final Piece piece : getActivePieces()) {
-            if(piece.getPieceType().isTown()) {
-                townPosition = piece.getPiecePosition();
-            }
-        }
-        return townPosition;
-    }
-
     public boolean isMoveLegal(final Move move) {
-        return this.legalMoves.contains(move);
+        return getLegalMoves().contains(move);
     }
 
 
@@ -6,6 +6,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -28,11 +29,17 @@ public class GameSetup extends JDialog {
     private StrategyType darkStrategyType;
     private JSpinner searchDepthSpinner;
     private JSpinner timeResourcesSpinner;
+    private JSpinner searchThreadsSpinner;
+    private JSpinner gameTimeSpinner;
+    private JSpinner incrementSpinner;
+    private JCheckBox ponderCheckBox;
 
     private static final String HUMAN_TEXT = "Human";
     private static final String COMPUTER_TEXT = "Computer";
     private static final String STRATEGY_ONE_TEXT = "AlphaOne";
     private static final String STRATEGY_TWO_TEXT = "AlphaTwo";
+    private static final String STRATEGY_THREE_TEXT = "AlphaThree";
+    private static final String STRATEGY_FOUR_TEXT = "MonteCarlo";
 
     public static boolean AIplayerDark = false;
     public static boolean AIplayerLight = false;
@@ -48,6 +55,10 @@ public class GameSetup extends JDialog {
         final JRadioButton lightStrategy2Button = new JRadioButton(STRATEGY_TWO_TEXT);
         final JRadioButton darkStrategy1Button = new JRadioButton(STRATEGY_ONE_TEXT);
         final JRadioButton darkStrategy2Button = new JRadioButton(STRATEGY_TWO_TEXT);
+        final JRadioButton lightStrategy3Button = new JRadioButton(STRATEGY_THREE_TEXT);
+        final JRadioButton darkStrategy3Button = new JRadioButton(STRATEGY_THREE_TEXT);
+        final JRadioButton lightStrategy4Button = new JRadioButton(STRATEGY_FOUR_TEXT);
+        final JRadioButton darkStrategy4Button = new JRadioButton(STRATEGY_FOUR_TEXT);
 
         lightHumanButton.setActionCommand(HUMAN_TEXT);
         final ButtonGroup lightGroup = new ButtonGroup();
@@ -64,11 +75,15 @@ public class GameSetup extends JDialog {
         final ButtonGroup lightStrategyGroup = new ButtonGroup();
         lightStrategyGroup.add(lightStrategy1Button);
         lightStrategyGroup.add(lightStrategy2Button);
+        lightStrategyGroup.add(lightStrategy3Button);
+        lightStrategyGroup.add(lightStrategy4Button);
         lightStrategy1Button.setSelected(true);
 
         final ButtonGroup darkStrategyGroup = new ButtonGroup();
         darkStrategyGroup.add(darkStrategy1Button);
         darkStrategyGroup.add(darkStrategy2Button);
+        darkStrategyGroup.add(darkStrategy3Button);
+        darkStrategyGroup.add(darkStrategy4Button);
         darkStrategy1Button.setSelected(true);
 
         getContentPane().add(myPanel);
@@ -81,12 +96,21 @@ public class GameSetup extends JDialog {
         myPanel.add(new JLabel("Light Strategy"));
         myPanel.add(lightStrategy1Button);
         myPanel.add(lightStrategy2Button);
+        myPanel.add(lightStrategy3Button);
+        myPanel.add(lightStrategy4Button);
         myPanel.add(new JLabel("Dark Strategy"));
         myPanel.add(darkStrategy1Button);
         myPanel.add(darkStrategy2Button);
+        myPanel.add(darkStrategy3Button);
+        myPanel.add(darkStrategy4Button);
 
         this.searchDepthSpinner = addLabeledSpinner(myPanel, "Search Depth", new SpinnerNumberModel(6, 0, Integer.MAX_VALUE, 1));
         this.timeResourcesSpinner = addLabeledSpinner(myPanel, "Time Resources (ms)", new SpinnerNumberModel(5000, 0, Integer.MAX_VALUE, 1000));
+        this.gameTimeSpinner = addLabeledSpinner(myPanel, "Game Time (s), 0 = no clock", new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 60));
+        this.incrementSpinner = addLabeledSpinner(myPanel, "Increment (ms)", new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 1000));
+        this.searchThreadsSpinner = addLabeledSpinner(myPanel, "Search Threads", new SpinnerNumberModel(1, 1, Runtime.getRuntime().availableProcessors(), 1));
+        this.ponderCheckBox = new JCheckBox("Ponder on the opponent's time (AlphaTwo)");
+        myPanel.add(this.ponderCheckBox);
 
         final JButton cancelButton = new JButton("Cancel");
         final JButton okButton = new JButton("OK");
@@ -101,8 +125,12 @@ public class GameSetup extends JDialog {
                 if(darkPlayerType == PlayerType.COMPUTER) {
                     AIplayerDark = true;
                 }
-                lightStrategyType = lightStrategy1Button.isSelected() ? StrategyType.StrategyOne : StrategyType.StrategyTwo;
-                darkStrategyType = darkStrategy1Button.isSelected() ? StrategyType.StrategyOne : StrategyType.StrategyTwo;
+                lightStrategyType = lightStrategy1Button.isSelected() ? StrategyType.StrategyOne :
+                        lightStrategy2Button.isSelected() ? StrategyType.StrategyTwo :
+                        lightStrategy3Button.isSelected() ? StrategyType.StrategyThree : StrategyType.StrategyFour;
+                darkStrategyType = darkStrategy1Button.isSelected() ? StrategyType.StrategyOne :
+                        darkStrategy2Button.isSelected() ? StrategyType.StrategyTwo :
+                        darkStrategy3Button.isSelected() ? StrategyType.StrategyThree : StrategyType.StrategyFour;
                 GameSetup.this.setVisible(false);
             }
         });
@@ -149,6 +177,10 @@ public class GameSetup extends JDialog {
         return getDarkStrategyType() == StrategyType.StrategyOne;
     }
 
+    StrategyType getStrategyType(final Player player) {
+        return player.getAlliance() == Alliance.LIGHT ? getLightStrategyType() : getDarkStrategyType();
+    }
+
     StrategyType getLightStrategyType() {
         return this.lightStrategyType;
     }
@@ -173,4 +205,20 @@ public class GameSetup extends JDialog {
     public int getTimeResources() {
         return (Integer)this.timeResourcesSpinner.getValue();
     }
+
+    public int getGameTime() {
+        return (Integer)this.gameTimeSpinner.getValue();
+    }
+
+    public int getIncrement() {
+        return (Integer)this.incrementSpinner.getValue();
+    }
+
+    public int getSearchThreads() {
+        return (Integer)this.searchThreadsSpinner.getValue();
+    }
+
+    public boolean isPonder() {
+        return this.ponderCheckBox.isSelected();
+    }
 }
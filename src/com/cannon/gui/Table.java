@@ -3,10 +3,22 @@ package com.cannon.gui;
 import com.cannon.engine.board.Board;
 import com.cannon.engine.board.BoardUtils;
 import com.cannon.engine.board.Move;
+import com.cannon.engine.board.MoveUtils;
 import com.cannon.engine.board.Tile;
 import com.cannon.engine.pieces.Piece;
 import com.cannon.engine.AI.AlphaTwo;
 import com.cannon.engine.AI.AlphaOne;
+import com.cannon.engine.AI.AlphaThree;
+import com.cannon.engine.AI.MonteCarlo;
+import com.cannon.engine.AI.support.AlphaBeta;
+import com.cannon.engine.AI.support.AnalysisLine;
+import com.cannon.engine.AI.support.MonteCarloTree;
+import com.cannon.engine.AI.support.MoveStrategy;
+import com.cannon.engine.AI.support.TranspositionTable;
+import com.cannon.engine.AI.support.TimeControl;
+import com.cannon.engine.player.Alliance;
+import com.cannon.engine.player.GameClock;
+import com.cannon.engine.player.Player;
 import com.cannon.engine.player.MoveTransition;
 import com.google.common.collect.Lists;
 
@@ -37,6 +49,8 @@ public class Table extends Observable {
     private BoardDirection boardDirection;
     private boolean highlightLegalMoves;
     private Move computerMove;
+    private final Map<Alliance, MoveStrategy> engines;
+    private volatile GameClock gameClock;
 
     private final static Dimension OUTER_FRAME_DIMENSION = new Dimension(800,700);
     private final static Dimension BOARD_PANEL_DIMENSION = new Dimension(800, 800);
@@ -61,6 +75,7 @@ public class Table extends Observable {
         this.boardPanel = new BoardPanel();
         this.boardPanel.setBorder(BorderFactory.createLineBorder(darkGapColor));
         this.moveLog = new MoveLog();
+        this.engines = new EnumMap<>(Alliance.class);
         this.addObserver(new TableGameAIWatcher());
         this.gameSetup = new GameSetup(this.gameframe, true);
         this.boardDirection = BoardDirection.NORMAL;
@@ -153,6 +168,17 @@ public class Table extends Observable {
             }
         });
         AIMenu.add(setupGameMenuItem);
+        final JMenuItem analysePositionMenuItem = new JMenuItem("Analyse Position");
+        analysePositionMenuItem.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                final String lines = JOptionPane.showInputDialog(Table.get().getBoardPanel(), "Number of lines", "3");
+                if(lines != null && lines.trim().matches("[1-9][0-9]*")) {
+                    new AnalysisWorker(Integer.parseInt(lines.trim())).execute();
+                }
+            }
+        });
+        AIMenu.add(analysePositionMenuItem);
         return AIMenu;
     }
 
@@ -259,7 +285,9 @@ public class Table extends Observable {
 
     public enum StrategyType {
         StrategyOne,
-        StrategyTwo
+        StrategyTwo,
+        StrategyThree,
+        StrategyFour
     }
 
 
@@ -294,6 +322,7 @@ public class Table extends Observable {
                             if(transition.getMoveStatus().isDone()) {
                                 cannonBoard = transition.getToBoard();
                                 moveLog.addMove(move);
+                                punchClock();
                             }
                             sourceTile = null;
                             destinationTile = null;
@@ -382,21 +411,85 @@ public class Table extends Observable {
     }
 
     private void setupUpdate(final GameSetup gameSetup) {
+        clearEngines();
+        this.gameClock = gameSetup.getGameTime() > 0 ?
+                new GameClock(gameSetup.getGameTime() * 1000L, gameSetup.getIncrement()) : null;
+        punchClock();
         setChanged();
         notifyObservers(gameSetup);
     }
 
 
+    private synchronized MoveStrategy getEngine(final Player player) {
+        MoveStrategy engine = this.engines.get(player.getAlliance());
+        if(engine == null) {
+            final int searchDepth = this.gameSetup.getSearchDepth();
+            switch(this.gameSetup.getStrategyType(player)) {
+                case StrategyOne:
+                    engine = new AlphaOne(searchDepth);
+                    break;
+                case StrategyThree:
+                    engine = new AlphaThree(searchDepth, this.gameSetup.getSearchThreads());
+                    break;
+                case StrategyFour:
+                    engine = new MonteCarlo(MonteCarlo.UNLIMITED_PLAYOUTS, this.gameSetup.getTimeResources(),
+                            MonteCarloTree.DEFAULT_CAPACITY, this.gameSetup.getSearchThreads(), MonteCarlo.Parallelism.TREE);
+                    break;
+                default:
+                    engine = new AlphaTwo(searchDepth, this.gameSetup.getTimeResources(),
+                            TranspositionTable.DEFAULT_SIZE_MB, this.gameSetup.getSearchThreads());
+            }
+            this.engines.put(player.getAlliance(), engine);
+        }
+        return engine;
+    }
+
+    private void punchClock() {
+        final GameClock clock = this.gameClock;
+        if(clock == null) {
+            return;
+        }
+        final Alliance justMoved = this.cannonBoard.currentPlayer().getOpponent().getAlliance();
+        clock.start(this.cannonBoard.currentPlayer().getAlliance());
+        if(clock.isFlagged(justMoved)) {
+            // a fallen flag ends the game like a checkmate
+            clock.stop();
+            stopPondering();
+            JOptionPane.showMessageDialog(this.boardPanel,
+                    "Game Over: Player " + justMoved + " has run out of time!", "Game Over",
+                    JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    private boolean isOutOfTime() {
+        final GameClock clock = this.gameClock;
+        return clock != null && (clock.isFlagged(Alliance.LIGHT) || clock.isFlagged(Alliance.DARK));
+    }
+
+    private synchronized void clearEngines() {
+        stopPondering();
+        this.engines.clear();
+    }
+
+    private synchronized void stopPondering() {
+        for(final MoveStrategy engine : this.engines.values()) {
+            if(engine instanceof AlphaTwo) {
+                ((AlphaTwo) engine).stopPondering();
+            }
+        }
+    }
+
     private static class TableGameAIWatcher implements Observer {
         @Override
         public void update(final Observable o, final Object arg) {
             if(Table.get().getGameSetup().isAIPlayer(Table.get().getGameBoard().currentPlayer()) &&
-            !Table.get().getGameBoard().currentPlayer().isInCheck()) {
+            !Table.get().getGameBoard().currentPlayer().isInCheck() && !Table.get().isOutOfTime()) {
                 System.out.println(Table.get().getGameBoard().currentPlayer() + " is set to AI, thinking....");
                 final AIThinkTank thinkTank = new AIThinkTank();
                 thinkTank.execute();
             }
             if(Table.get().getGameBoard().currentPlayer().isInCheck()) {
+                Table.get().stopPondering();
                 JOptionPane.showMessageDialog(Table.get().getBoardPanel(),
                         "Game Over: Player " + Table.get().getGameBoard().currentPlayer() + " is in checkmate!", "Game Over",
                         JOptionPane.INFORMATION_MESSAGE);
@@ -405,23 +498,30 @@ public class Table extends Observable {
     }
 
     private static class AIThinkTank extends SwingWorker<Move, String> {
+        private MoveStrategy engine;
+
         private AIThinkTank() {
         }
 
         @Override
         protected Move doInBackground() throws Exception {
             final Move bestMove;
-            final int moveNumber = Table.get().getMoveLog().size();
-            final int quiescenceFactor = 2000 + (100 * moveNumber);
-            final int timeResources = Table.get().getGameSetup().getTimeResources();
-            final AlphaOne strategy1 = new AlphaOne(Table.get().getGameSetup().getSearchDepth(), quiescenceFactor);
-            final AlphaTwo strategy2 = new AlphaTwo(Table.get().getGameSetup().getSearchDepth(), quiescenceFactor, timeResources);
-            if(Table.get().getGameSetup().isStrategyOne(Table.get().getGameBoard().currentPlayer())) {
-                Table.get().getGameBoard().currentPlayer().setMoveStrategy(strategy1);
-            } else {
-                Table.get().getGameBoard().currentPlayer().setMoveStrategy(strategy2);
+            final MoveStrategy engine = Table.get().getEngine(Table.get().getGameBoard().currentPlayer());
+            this.engine = engine;
+            final GameClock clock = Table.get().gameClock;
+            final TimeControl timeControl = clock == null ? null :
+                    TimeControl.forClock(clock.getRemainingMillis(Table.get().getGameBoard().currentPlayer().getAlliance()),
+                            clock.getIncrementMillis());
+            if(engine instanceof AlphaBeta && timeControl != null) {
+                ((AlphaBeta) engine).setTimeControl(timeControl);
+            } else if(engine instanceof AlphaThree && timeControl != null) {
+                ((AlphaThree) engine).setTimeControl(timeControl);
+            } else if(engine instanceof MonteCarlo && timeControl != null) {
+                ((MonteCarlo) engine).setTimeControl(timeControl);
             }
-            bestMove = Table.get().getGameBoard().currentPlayer().getMoveStrategy().execute(Table.get().getGameBoard());
+            Table.get().getGameBoard().currentPlayer().setMoveStrategy(engine);
+            final Board board = Table.get().getGameBoard();
+            bestMove = MoveUtils.decode(board, board.currentPlayer().getMoveStrategy().execute(board));
             return bestMove;
         }
 
@@ -431,10 +531,15 @@ public class Table extends Observable {
                 final Move bestMove = get();
                 Table.get().updateComputerMove(bestMove);
                 Table.get().updateGameBoard(Table.get().getGameBoard().currentPlayer().makeMove(bestMove).getToBoard());
+                Table.get().punchClock();
                 Table.get().getMoveLog().addMove(bestMove);
                 Table.get().getGameHistoryPanel().redo(Table.get().getGameBoard(), Table.get().getMoveLog());
                 Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
                 Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
+                if(Table.get().getGameSetup().isPonder() && this.engine instanceof AlphaTwo &&
+                        !Table.get().getGameBoard().currentPlayer().isInCheck() && !Table.get().isOutOfTime()) {
+                    ((AlphaTwo) this.engine).startPondering(Table.get().getGameBoard());
+                }
                 Table.get().moveMadeUpdate(PlayerType.COMPUTER);
             } catch (final Exception e) {
                 e.printStackTrace();
@@ -443,6 +548,39 @@ public class Table extends Observable {
     }
 
 
+    private static class AnalysisWorker extends SwingWorker<List<AnalysisLine>, String> {
+        private final int lineCount;
+
+        private AnalysisWorker(final int lineCount) {
+            this.lineCount = lineCount;
+        }
+
+        @Override
+        protected List<AnalysisLine> doInBackground() throws Exception {
+            final GameSetup gameSetup = Table.get().getGameSetup();
+            final AlphaTwo engine = new AlphaTwo(gameSetup.getSearchDepth(), gameSetup.getTimeResources(),
+                    TranspositionTable.DEFAULT_SIZE_MB, gameSetup.getSearchThreads());
+            return engine.analyze(Table.get().getGameBoard(), this.lineCount);
+        }
+
+        @Override
+        public void done() {
+            try {
+                final StringBuilder text = new StringBuilder();
+                int index = 1;
+                for(final AnalysisLine line : get()) {
+                    text.append(index++).append(". ").append(line).append('\n');
+                }
+                JOptionPane.showMessageDialog(Table.get().getBoardPanel(),
+                        text.length() > 0 ? text.toString() : "No legal moves", "Analysis",
+                        JOptionPane.INFORMATION_MESSAGE);
+            } catch (final Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+
     public Board getGameBoard() {
         return this.cannonBoard;
     }
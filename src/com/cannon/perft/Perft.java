@@ -0,0 +1,248 @@
+package com.cannon.perft;
+
+import com.cannon.engine.board.Board;
+import com.cannon.engine.board.BoardUtils;
+import com.cannon.engine.board.MoveList;
+import com.cannon.engine.board.MoveUtils;
+import com.cannon.engine.board.SearchBoard;
+import com.cannon.pgn.FenUtilities;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public final class Perft {
+
+    private static final String REFERENCE_FILE = "perft.txt";
+
+    private final int depth;
+    private final boolean bulkCounting;
+    private final int threadCount;
+
+    private Perft(final Builder builder) {
+        this.depth = builder.depth;
+        this.bulkCounting = builder.bulkCounting;
+        this.threadCount = builder.threadCount;
+    }
+
+    public long perft(final Board board) {
+        if(this.depth == 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for(final long count : divide(board).values()) {
+            nodes += count;
+        }
+        return nodes;
+    }
+
+    public Map<Integer, Long> divide(final Board board) {
+        final SearchBoard root = board.createSearchBoard();
+        final MoveList rootMoves = new MoveList();
+        if(this.depth > 0 && !isGameOver(root)) {
+            root.generateMoves(rootMoves);
+        }
+        final Map<Integer, Long> division = new LinkedHashMap<>();
+        if(this.threadCount <= 1) {
+            final int[][] moveBuffers = new int[this.depth][SearchBoard.MAX_MOVES];
+            for(int i = 0; i < rootMoves.size(); i++) {
+                final long nodes = divide(root, rootMoves.get(i), moveBuffers);
+                if(nodes >= 0) {
+                    division.put(rootMoves.get(i), nodes);
+                }
+            }
+            return division;
+        }
+        final ExecutorService executorService = Executors.newFixedThreadPool(this.threadCount);
+        try {
+            final List<Future<Long>> results = new ArrayList<>(rootMoves.size());
+            for(int i = 0; i < rootMoves.size(); i++) {
+                final int move = rootMoves.get(i);
+                results.add(executorService.submit(() ->
+                        divide(new SearchBoard(root), move, new int[this.depth][SearchBoard.MAX_MOVES])));
+            }
+            for(int i = 0; i < rootMoves.size(); i++) {
+                final long nodes = results.get(i).get();
+                if(nodes >= 0) {
+                    division.put(rootMoves.get(i), nodes);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (final ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executorService.shutdown();
+        }
+        return division;
+    }
+
+    private long divide(final SearchBoard board,
+                        final int move,
+                        final int[][] moveBuffers) {
+        board.makeMove(move);
+        final long nodes = leavesMoverInCheck(board) ? -1 : perft(board, this.depth - 1, moveBuffers);
+        board.unmakeMove();
+        return nodes;
+    }
+
+    private long perft(final SearchBoard board,
+                       final int depth,
+                       final int[][] moveBuffers) {
+        if(depth == 0) {
+            return 1;
+        }
+        if(isGameOver(board)) {
+            return 0;
+        }
+        final int[] moves = moveBuffers[depth - 1];
+        final int count = board.generateMoves(moves, 0);
+        long nodes = 0;
+        if(this.bulkCounting && depth == 1) {
+            // bulk counting: the legal moves of the last ply are counted without being made
+            for(int i = 0; i < count; i++) {
+                if(!board.leavesInCheck(moves[i])) {
+                    nodes++;
+                }
+            }
+            return nodes;
+        }
+        for(int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            if(!leavesMoverInCheck(board)) {
+                nodes += perft(board, depth - 1, moveBuffers);
+            }
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private static boolean isGameOver(final SearchBoard board) {
+        return board.isInCheck(board.getCurrentAlliance());
+    }
+
+    private static boolean leavesMoverInCheck(final SearchBoard board) {
+        return board.isInCheck(board.getCurrentAlliance().getOpponent());
+    }
+
+    public static String moveText(final int move) {
+        return BoardUtils.getPositionAtCoordinate(MoveUtils.getFrom(move)) +
+               (MoveUtils.isCapture(move) ? "x" : "-") +
+               BoardUtils.getPositionAtCoordinate(MoveUtils.getTo(move));
+    }
+
+    public static boolean verify(final InputStream reference,
+                                 final int threadCount) throws IOException {
+        boolean passed = true;
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(reference, StandardCharsets.UTF_8));
+        String line;
+        while((line = reader.readLine()) != null) {
+            line = line.trim();
+            if(line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            final String[] fields = line.split(";");
+            final String fen = fields[0].trim();
+            final Board board = FenUtilities.createGameFromFEN(fen);
+            for(int i = 1; i < fields.length; i++) {
+                final String[] expectation = fields[i].trim().split("\\s+");
+                final int depth = Integer.parseInt(expectation[0].substring(1));
+                final long expected = Long.parseLong(expectation[1]);
+                final long start = System.currentTimeMillis();
+                final long nodes = new Builder().setDepth(depth).setThreadCount(threadCount).build().perft(board);
+                final boolean matches = nodes == expected;
+                passed &= matches;
+                System.out.println((matches ? "OK   " : "FAIL ") + fen + " D" + depth + " " + nodes +
+                        (matches ? "" : " expected " + expected) +
+                        " (" + (System.currentTimeMillis() - start) + " ms)");
+            }
+        }
+        return passed;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final Builder builder = new Builder();
+        String fen = null;
+        boolean divide = false;
+        boolean verify = false;
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "-fen":
+                    fen = args[++i];
+                    break;
+                case "-divide":
+                    divide = true;
+                    break;
+                case "-nobulk":
+                    builder.setBulkCounting(false);
+                    break;
+                case "-threads":
+                    builder.setThreadCount(Integer.parseInt(args[++i]));
+                    break;
+                case "-verify":
+                    verify = true;
+                    break;
+                default:
+                    builder.setDepth(Integer.parseInt(args[i]));
+            }
+        }
+        if(verify) {
+            try(final InputStream reference = Perft.class.getResourceAsStream(REFERENCE_FILE)) {
+                if(reference == null) {
+                    throw new IOException("Missing " + REFERENCE_FILE);
+                }
+                System.exit(verify(reference, builder.threadCount) ? 0 : 1);
+            }
+        }
+        final Perft perft = builder.build();
+        final Board board = fen != null ? FenUtilities.createGameFromFEN(fen) : Board.createStandardBoard();
+        final long start = System.nanoTime();
+        final Map<Integer, Long> division = perft.divide(board);
+        long nodes = 0;
+        for(final Map.Entry<Integer, Long> entry : division.entrySet()) {
+            if(divide) {
+                System.out.println(moveText(entry.getKey()) + ": " + entry.getValue());
+            }
+            nodes += entry.getValue();
+        }
+        final long elapsed = Math.max(System.nanoTime() - start, 1);
+        System.out.println("Depth " + perft.depth + ": " + nodes + " nodes in " + (elapsed / 1000000) + " ms (" +
+                (nodes * 1000000000L / elapsed) + " nps)");
+    }
+
+    public static class Builder {
+        int depth = 1;
+        boolean bulkCounting = true;
+        int threadCount = 1;
+
+        public Builder setDepth(final int depth) {
+            this.depth = depth;
+            return this;
+        }
+
+        public Builder setBulkCounting(final boolean bulkCounting) {
+            this.bulkCounting = bulkCounting;
+            return this;
+        }
+
+        public Builder setThreadCount(final int threadCount) {
+            this.threadCount = threadCount;
+            return this;
+        }
+
+        public Perft build() {
+            return new Perft(this);
+        }
+    }
+}
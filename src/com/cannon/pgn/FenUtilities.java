@@ -2,6 +2,9 @@ package com.cannon.pgn;
 
 import com.cannon.engine.board.Board;
 import com.cannon.engine.board.BoardUtils;
+import com.cannon.engine.pieces.Soldier;
+import com.cannon.engine.pieces.Town;
+import com.cannon.engine.player.Alliance;
 
 public class FenUtilities {
 
@@ -9,13 +12,59 @@ public class FenUtilities {
         throw new RuntimeException("Not instantiable");
     }
 
+    private static final int LIGHT_TOWN_HOME = 0;
+    private static final int DARK_TOWN_HOME = BoardUtils.NUM_TILES - 1;
+
     public static Board createGameFromFEN(final String fenString) {
-        return null;
+        final String[] fenPartitions = fenString.trim().split("\\s+");
+        if(fenPartitions.length < 2) {
+            throw new RuntimeException("Invalid FEN String " + fenString);
+        }
+        final String gameConfiguration = fenPartitions[0];
+        final String townsToPlace = fenPartitions.length > 4 ? fenPartitions[2] : null;
+        final Board.Builder builder = new Board.Builder();
+        int tile = 0;
+        int i = 0;
+        while(i < gameConfiguration.length()) {
+            final char c = gameConfiguration.charAt(i);
+            if(c == '/') {
+                i++;
+                continue;
+            }
+            if(Character.isDigit(c)) {
+                int end = i;
+                while(end < gameConfiguration.length() && Character.isDigit(gameConfiguration.charAt(end))) {
+                    end++;
+                }
+                tile += Integer.parseInt(gameConfiguration.substring(i, end));
+                i = end;
+                continue;
+            }
+            final Alliance alliance = Character.isLowerCase(c) ? Alliance.LIGHT : Alliance.DARK;
+            switch(Character.toUpperCase(c)) {
+                case 'S':
+                    builder.setPiece(new Soldier(alliance, tile));
+                    break;
+                case 'T':
+                    builder.setPiece(new Town(tile, alliance, isTownToPlace(townsToPlace, alliance, tile)));
+                    break;
+                default:
+                    throw new RuntimeException("Invalid FEN String " + fenString);
+            }
+            tile++;
+            i++;
+        }
+        if(tile != BoardUtils.NUM_TILES) {
+            throw new RuntimeException("Invalid FEN String " + fenString);
+        }
+        builder.setMoveMaker(moveMaker(fenPartitions[1]));
+        return builder.build();
     }
 
     public static String createFENFromGame(final Board board) {
         return calculateBoardText(board) + " " +
                calculateCurrentPlayerText(board) + " " +
+               calculateTownsToPlaceText(board) + " " +
                "0 1";
     }
 
@@ -51,4 +100,28 @@ public class FenUtilities {
     public static String calculateCurrentPlayerText(final Board board) {
         return board.currentPlayer().toString().substring(0, 1).toLowerCase();
     }
+
+    public static String calculateTownsToPlaceText(final Board board) {
+        final String townsText = (board.isTownPlaced(Alliance.DARK) ? "" : "T") +
+                                 (board.isTownPlaced(Alliance.LIGHT) ? "" : "t");
+        return townsText.isEmpty() ? "-" : townsText;
+    }
+
+    private static boolean isTownToPlace(final String townsToPlace,
+                                         final Alliance alliance,
+                                         final int tile) {
+        if(townsToPlace == null) {
+            return tile == (alliance.isLight() ? LIGHT_TOWN_HOME : DARK_TOWN_HOME);
+        }
+        return townsToPlace.indexOf(alliance.isLight() ? 't' : 'T') != -1;
+    }
+
+    private static Alliance moveMaker(final String moveMakerString) {
+        if(moveMakerString.equals("l")) {
+            return Alliance.LIGHT;
+        } else if(moveMakerString.equals("d")) {
+            return Alliance.DARK;
+        }
+        throw new RuntimeException("Invalid FEN String " + moveMakerString);
+    }
 }
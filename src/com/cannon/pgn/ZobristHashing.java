@@ -3,45 +3,99 @@ package com.cannon.pgn;
 
 import com.cannon.engine.board.Board;
 import com.cannon.engine.board.BoardUtils;
+import com.cannon.engine.board.SearchBoard;
+import com.cannon.engine.pieces.Piece;
+import com.cannon.engine.player.Alliance;
 
-import java.security.SecureRandom;
+import java.util.Random;
 
 
 public class ZobristHashing {
-    private long[][] zobristBoard;
-    private long zobristDarkMove;
 
-    public ZobristHashing() {
-        SecureRandom random = new SecureRandom();
-        zobristBoard = new long[100][2];
-        for(int piece = 0; piece < 2; piece++) {
+    private static final long SEED = 0x43414E4E4F4EL;
+
+    private static final long[][] SOLDIER_KEYS = new long[2][BoardUtils.NUM_TILES];
+    private static final long[][] TOWN_KEYS = new long[2][BoardUtils.NUM_TILES];
+    private static final long[] TOWN_PLACED_KEYS = new long[2];
+    private static final long DARK_MOVE_KEY;
+
+    static {
+        final Random random = new Random(SEED);
+        for(int side = 0; side < 2; side++) {
             for(int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
-                zobristBoard[tile][piece] = random.nextLong();
+                SOLDIER_KEYS[side][tile] = random.nextLong();
+                TOWN_KEYS[side][tile] = random.nextLong();
             }
+            TOWN_PLACED_KEYS[side] = random.nextLong();
         }
-        zobristDarkMove = random.nextLong();
+        DARK_MOVE_KEY = random.nextLong();
+    }
+
+    private ZobristHashing() {
+        throw new RuntimeException("Not instantiable");
     }
 
-    public long getHash(final Board board) {
+    public static long[] getSoldierKeys(final Alliance alliance) {
+        return SOLDIER_KEYS[sideOf(alliance)].clone();
+    }
+
+    public static long[] getTownKeys(final Alliance alliance) {
+        return TOWN_KEYS[sideOf(alliance)].clone();
+    }
+
+    public static long getTownPlacedKey(final Alliance alliance) {
+        return TOWN_PLACED_KEYS[sideOf(alliance)];
+    }
+
+    public static long getDarkMoveKey() {
+        return DARK_MOVE_KEY;
+    }
+
+    public static long calculateHash(final Board board) {
         long zHash = 0L;
-        for(int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
-            if(!board.getTile(tile).isTileOccupied()) {
-                continue;
+        for(final Piece piece : board.getAllPieces()) {
+            final int side = sideOf(piece.getPieceAlliance());
+            if(piece.getPieceType().isTown()) {
+                zHash ^= TOWN_KEYS[side][piece.getPiecePosition()];
+            } else {
+                zHash ^= SOLDIER_KEYS[side][piece.getPiecePosition()];
             }
-            final String tileText = board.getTile(tile).toString();
-
-            int piece = 0;
-            if(tileText == "s") {
-                piece = 0;
-            } else if(tileText == "S") {
-                piece = 1;
+        }
+        for(final Alliance alliance : Alliance.values()) {
+            if(board.isTownPlaced(alliance)) {
+                zHash ^= TOWN_PLACED_KEYS[sideOf(alliance)];
             }
-            zHash ^= zobristBoard[tile][piece];
         }
+        if(board.currentPlayer().getAlliance().isDark()) {
+            zHash ^= DARK_MOVE_KEY;
+        }
+        return zHash;
+    }
 
-        if (!board.currentPlayer().getAlliance().isLight()) {
-            zHash ^= zobristDarkMove;
+    public static long calculateHash(final SearchBoard board) {
+        long zHash = 0L;
+        for(final Alliance alliance : Alliance.values()) {
+            final int side = sideOf(alliance);
+            for(int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+                if(board.isSoldier(alliance, tile)) {
+                    zHash ^= SOLDIER_KEYS[side][tile];
+                }
+            }
+            final int town = board.getTownPosition(alliance);
+            if(town != -1) {
+                zHash ^= TOWN_KEYS[side][town];
+            }
+            if(board.isTownPlaced(alliance)) {
+                zHash ^= TOWN_PLACED_KEYS[side];
+            }
+        }
+        if(board.getCurrentAlliance().isDark()) {
+            zHash ^= DARK_MOVE_KEY;
         }
         return zHash;
     }
+
+    private static int sideOf(final Alliance alliance) {
+        return alliance.isLight() ? 0 : 1;
+    }
 }